@@ -26,61 +26,151 @@ package edu.akka.sample.app.classic;
 
 import static scala.concurrent.duration.Duration.Inf;
 
+import akka.Done;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
-import akka.actor.Props;
+import akka.actor.CoordinatedShutdown;
 import akka.pattern.Patterns;
-import akka.util.Timeout;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import edu.akka.sample.app.classic.actor.Flush;
+import edu.akka.sample.app.classic.actor.ResultSinkActor;
+import edu.akka.sample.app.classic.actor.ResultSinkActor.ResultSinkSettings;
+import edu.akka.sample.app.classic.actor.StatisticsActor;
 import edu.akka.sample.app.classic.actor.TransactionsActor;
+import edu.akka.sample.app.classic.actor.TransactionsActor.BatchProcessed;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drain;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drained;
+import edu.akka.sample.app.classic.actor.TransactionsActor.HotCustomerSettings;
+import edu.akka.sample.app.classic.actor.TransactionsClient;
 import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.provider.OffsetCheckpoint;
+import edu.akka.sample.app.classic.data.provider.SyntheticTransactionProvider;
+import edu.akka.sample.app.classic.data.provider.SyntheticTransactionProvider.Settings;
 import edu.akka.sample.app.classic.data.provider.TransactionProvider;
+import edu.akka.sample.app.classic.data.provider.TransactionSource;
 import edu.akka.sample.app.classic.utils.CustomSystemOut;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import scala.concurrent.Await;
-import scala.concurrent.duration.Duration;
 
 /**
  * Main Application: it reads financial transactions repeatedly and sends them for processing to a
  * Bulk Actor via Actor System.
+ * <p>
+ * Up to "sample.transactions.batches-in-flight" batches are submitted before waiting for the
+ * oldest one, and batches are acknowledged in the order they were submitted.
+ * <p>
+ * Shutting down, either because there is nothing more to process or because the JVM is asked to
+ * exit, goes through the phases of Akka Coordinated Shutdown: intake stops, pending transactions
+ * are drained within a deadline, and whatever is buffered is flushed before the Actor System
+ * terminates.
+ * <p>
+ * The offset up to which transactions were processed is checkpointed, so that, if the application
+ * stops before reading everything, the next run resumes from there. The offset is only written
+ * once the results of the transactions up to it are flushed.
  */
 public class TransactionsProcessor {
 
   private static final int NUMBER_OF_TRANSACTIONS_TO_READ = 5;
 
-  public static void main(String[] args) throws InterruptedException, TimeoutException {
+  // statistics are published at every pane, and the sliding window spans several panes
+  private static final java.time.Duration STATISTICS_PANE_DURATION =
+      java.time.Duration.ofSeconds(1);
+  private static final int STATISTICS_NUMBER_OF_PANES = 5;
+  private static final Path STATISTICS_FILE = Path.of("transaction-statistics.csv");
+
+  public static void main(String[] args)
+      throws InterruptedException, TimeoutException, IOException {
+
+    // time to the first processed batch is measured since the JVM started
+    long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    // the configuration is parsed only once, and shared with the Actor System
+    Config config = ConfigFactory.load();
+    boolean isSourcePrefetched = config.getBoolean("sample.startup.prefetch-source");
+
+    // resuming from where a previous run stopped, if it did not process everything
+    Path checkpointFile = Path.of(config.getString("sample.checkpoint.file"));
+    java.time.Duration checkpointInterval = config.getDuration("sample.checkpoint.interval");
+    int offset = new OffsetCheckpoint(checkpointFile, checkpointInterval).load();
+
+    // choosing where the financial data comes from, and reading first chunk of it
+    // if prefetched, this happens in the background while the Actor System starts
+    CompletableFuture<TransactionSource> transactionSourceFuture = isSourcePrefetched
+        ? CompletableFuture.supplyAsync(() -> getTransactionSource(config, offset))
+        : CompletableFuture.completedFuture(getTransactionSource(config, offset));
+    CompletableFuture<List<Transaction>> transactionsFuture = transactionSourceFuture.thenApply(
+        transactionSource -> transactionSource.readTransactions(NUMBER_OF_TRANSACTIONS_TO_READ));
 
     // getting the Actor System for this application
-    ActorSystem actorSystem = ActorSystem.create("ClassicAkkaSampleApp");
+    ActorSystem actorSystem = ActorSystem.create("ClassicAkkaSampleApp", config);
+
+    // creating the instance of the Actor that aggregates the processed transactions
+    ActorRef statisticsActor = actorSystem.actorOf(StatisticsActor.getStatisticsActor(
+        STATISTICS_PANE_DURATION, STATISTICS_NUMBER_OF_PANES, STATISTICS_FILE), "statistics");
+
+    // creating the instance of the Actor that writes the results of the processed transactions
+    ActorRef resultSinkActor = actorSystem.actorOf(ResultSinkActor.getResultSinkActor(
+        ResultSinkSettings.fromConfig(config.getConfig("sample.result-sink"))), "results");
 
     // creating the instance of the Bulk Actor
-    ActorRef transactionsActor = actorSystem.actorOf(Props.create(TransactionsActor.class));
+    ActorRef transactionsActor = actorSystem.actorOf(TransactionsActor.getTransactionsActor(
+        statisticsActor, resultSinkActor,
+        HotCustomerSettings.fromConfig(config.getConfig("sample.hot-customers"))));
+
+    // the checkpoint is written only once the results it covers are flushed by the Result Sink
+    java.time.Duration flushTimeout = config.getDuration("sample.shutdown.flush-timeout");
+    OffsetCheckpoint checkpoint = new OffsetCheckpoint(checkpointFile, checkpointInterval,
+        () -> flush(resultSinkActor, flushTimeout));
+    checkpoint.load();
+
+    // shutting down must not lose the transactions in flight
+    AtomicBoolean isIntakeStopped = new AtomicBoolean(false);
+    registerShutdownTasks(actorSystem, transactionsActor, List.of(statisticsActor, resultSinkActor),
+        isIntakeStopped, checkpoint);
 
-    // reading first chunk of financial data
-    List<Transaction> transactions = TransactionProvider.getInstance().readTransactions(
-        NUMBER_OF_TRANSACTIONS_TO_READ);
+    // batches are submitted without the ask pattern, and each one is completed via its future
+    TransactionsClient transactionsClient =
+        new TransactionsClient(transactionsActor, actorSystem.dispatcher());
+    int batchesInFlight = config.getInt("sample.transactions.batches-in-flight");
+    Deque<CompletableFuture<BatchProcessed>> submittedBatches = new ArrayDeque<>();
+
+    TransactionSource transactionSource = transactionSourceFuture.join();
+    List<Transaction> transactions = transactionsFuture.join();
 
     int count = 0;
+    int countProcessed = 0;
+    boolean isBatchFailed = false;
 
-    while (!transactions.isEmpty()) {
+    while (!transactions.isEmpty() && !isIntakeStopped.get() && !isBatchFailed) {
 
       CustomSystemOut.INSTANCE.blankLine();
       CustomSystemOut.INSTANCE.blueBackground(
           "- Sending batch of transactions no. " + ++count + " for processing -");
 
-      // ask pattern is used
-      // in this case, a future is returned, and the main thread will wait for its completion
-      // or timeout, if nothing is received...
-      Await.result(Patterns.ask(transactionsActor, transactions, Timeout.apply(5, TimeUnit.MINUTES)),
-          Duration.create(5, TimeUnit.MINUTES));
+      submittedBatches.add(transactionsClient.submit(transactions));
+
+      if (submittedBatches.size() >= batchesInFlight) {
+
+        isBatchFailed = !acknowledgeOldestBatch(submittedBatches, checkpoint, ++countProcessed,
+            startTime);
+      }
 
-      CustomSystemOut.INSTANCE.blueBackground("- Batch of transactions no. " + count + " processed -");
       CustomSystemOut.INSTANCE.blueBackground("- Trying to read more now... -");
 
       // trying to read more transactions
-      transactions = TransactionProvider.getInstance()
-          .readTransactions(NUMBER_OF_TRANSACTIONS_TO_READ);
+      transactions = transactionSource.readTransactions(NUMBER_OF_TRANSACTIONS_TO_READ);
 
       if (transactions.isEmpty()) {
 
@@ -91,8 +181,193 @@ public class TransactionsProcessor {
       }
     }
 
-    // shutting things down
+    // whatever is still in flight is waited for, unless a batch already failed
+    while (!submittedBatches.isEmpty() && !isBatchFailed) {
+
+      isBatchFailed = !acknowledgeOldestBatch(submittedBatches, checkpoint, ++countProcessed,
+          startTime);
+    }
+
+    if (transactions.isEmpty() && !isBatchFailed) {
+
+      // everything was processed, so the next run starts from the beginning
+      checkpoint.clear();
+    }
+    else {
+
+      checkpoint.save();
+      CustomSystemOut.INSTANCE.blankLine();
+      CustomSystemOut.INSTANCE.blueBackground("- Stopped at offset "
+          + checkpoint.getAcknowledgedOffset() + ": shutting down -");
+    }
+
+    // shutting things down, which runs the tasks of the Coordinated Shutdown
     actorSystem.terminate();
     Await.ready(actorSystem.whenTerminated(), Inf());
   }
+
+  /**
+   * Waits for the oldest submitted batch and acknowledges its transactions in the checkpoint.
+   * Batches are acknowledged in the order they were submitted, even if a later one completes
+   * first, so that the checkpoint never skips over a batch that was not processed.
+   *
+   * @param submittedBatches Futures of the submitted batches, the oldest first
+   * @param checkpoint Checkpoint of the offset up to which transactions were processed
+   * @param count Number of the batch, counting from 1
+   * @param startTime Time at which the JVM started
+   * @return False, if the batch failed because it was refused or abandoned while draining
+   */
+  private static boolean acknowledgeOldestBatch(
+      Deque<CompletableFuture<BatchProcessed>> submittedBatches, OffsetCheckpoint checkpoint,
+      int count, long startTime) throws IOException {
+
+    BatchProcessed batchProcessed;
+
+    try {
+
+      batchProcessed = submittedBatches.remove().join();
+    }
+    catch (CompletionException e) {
+
+      // shutting down: the batch was refused or abandoned while draining
+      CustomSystemOut.INSTANCE.red(e.getCause().getMessage());
+      return false;
+    }
+
+    checkpoint.acknowledge(batchProcessed.numberOfTransactions());
+
+    CustomSystemOut.INSTANCE.blueBackground("- Batch of transactions no. " + count + " processed -");
+
+    if (count == 1) {
+
+      CustomSystemOut.INSTANCE.blueBackground("- First batch processed "
+          + (System.currentTimeMillis() - startTime) + " ms after startup -");
+    }
+
+    return true;
+  }
+
+  /**
+   * Asks the given Actor to flush, and waits until it has.
+   *
+   * @param sinkActor Actor that writes the processed transactions to files
+   * @param timeout How long to wait for the Actor to flush
+   * @throws IOException If the Actor did not flush in time
+   */
+  private static void flush(ActorRef sinkActor, java.time.Duration timeout) throws IOException {
+
+    try {
+
+      Patterns.ask(sinkActor, new Flush(), timeout).toCompletableFuture().get();
+    }
+    catch (ExecutionException e) {
+
+      throw new IOException("Results could not be flushed", e.getCause());
+    }
+    catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while flushing results", e);
+    }
+  }
+
+  /**
+   * Registers the tasks that make shutting down graceful, as per settings "sample.shutdown":
+   * <ol>
+   *   <li>no more transactions are read;</li>
+   *   <li>pending transactions are drained, and how many were completed or abandoned is
+   *   reported;</li>
+   *   <li>the statistics and results still in memory are flushed to their files, and only then
+   *   is the offset up to which transactions were processed checkpointed.</li>
+   * </ol>
+   *
+   * @param actorSystem Actor System
+   * @param transactionsActor Bulk Actor
+   * @param sinkActors Actors that write the processed transactions to files
+   * @param isIntakeStopped Flag to be set when no more transactions should be read
+   * @param checkpoint Checkpoint of the offset up to which transactions were processed
+   */
+  private static void registerShutdownTasks(ActorSystem actorSystem, ActorRef transactionsActor,
+      List<ActorRef> sinkActors, AtomicBoolean isIntakeStopped, OffsetCheckpoint checkpoint) {
+
+    CoordinatedShutdown coordinatedShutdown = CoordinatedShutdown.get(actorSystem);
+    Config config = actorSystem.settings().config().getConfig("sample.shutdown");
+    java.time.Duration drainDeadline = config.getDuration("drain-deadline");
+    java.time.Duration flushTimeout = config.getDuration("flush-timeout");
+
+    coordinatedShutdown.addTask(CoordinatedShutdown.PhaseServiceUnbind(), "stop-intake", () -> {
+
+      isIntakeStopped.set(true);
+      return CompletableFuture.completedFuture(Done.getInstance());
+    });
+
+    coordinatedShutdown.addTask(CoordinatedShutdown.PhaseServiceRequestsDone(),
+        "drain-transactions",
+        () -> Patterns.ask(transactionsActor, new Drain(drainDeadline),
+                drainDeadline.plus(flushTimeout))
+            .thenApply(reply -> {
+
+              Drained drained = (Drained) reply;
+
+              CustomSystemOut.INSTANCE.blueBackground("- Transactions completed: "
+                  + drained.completed() + ", abandoned: " + drained.abandoned() + " -");
+
+              return Done.getInstance();
+            }));
+
+    coordinatedShutdown.addTask(CoordinatedShutdown.PhaseBeforeActorSystemTerminate(),
+        "flush-sinks",
+        () -> CompletableFuture.allOf(sinkActors.stream()
+                .map(sinkActor -> Patterns.ask(sinkActor, new Flush(), flushTimeout))
+                .map(CompletionStage::toCompletableFuture)
+                .toArray(CompletableFuture[]::new))
+            .thenCompose(nothing -> saveCheckpoint(checkpoint)));
+  }
+
+  /**
+   * Writes the offset up to which transactions were processed, once the sinks are flushed.
+   *
+   * @param checkpoint Checkpoint of the offset up to which transactions were processed
+   * @return Future completed once the offset is written
+   */
+  private static CompletableFuture<Done> saveCheckpoint(OffsetCheckpoint checkpoint) {
+
+    try {
+
+      checkpoint.save();
+      return CompletableFuture.completedFuture(Done.getInstance());
+    }
+    catch (IOException e) {
+
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Determines the source of financial data, as per setting "sample.transactions.source".
+   *
+   * @param config Configuration of the Actor System
+   * @param offset Number of transactions to be skipped, because they were already processed
+   * @return Either the {@link TransactionProvider} with fixed data, or a
+   * {@link SyntheticTransactionProvider}
+   */
+  private static TransactionSource getTransactionSource(Config config, int offset) {
+
+    String source = config.getString("sample.transactions.source");
+
+    TransactionSource transactionSource = switch (source) {
+      case "fixed" -> TransactionProvider.getInstance();
+      case "synthetic" -> new SyntheticTransactionProvider(
+          Settings.fromConfig(config.getConfig("sample.transactions.synthetic")));
+      default -> throw new IllegalArgumentException("Unknown source of transactions: " + source);
+    };
+
+    if (offset > 0) {
+
+      CustomSystemOut.INSTANCE.blueBackground("- Resuming from offset " + offset + " -");
+      transactionSource.skipTransactions(offset);
+    }
+
+    return transactionSource;
+  }
 }
@@ -25,15 +25,87 @@
 package edu.akka.sample.app.classic.actor;
 
 import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
 import akka.actor.Props;
 import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionResult;
 import edu.akka.sample.app.classic.utils.CustomSystemOut;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 
+/**
+ * Actor that processes the transactions of one customer and keeps its balance.
+ * <p>
+ * When the customer is hot, commutative transactions are also processed by worker instances of
+ * this Actor. A worker does not keep a balance on its own: it accumulates the changes and
+ * reconciles them with the primary instance once its mailbox has nothing else to process, or
+ * before it accumulates transactions that were sent after another one to the primary instance.
+ * <p>
+ * The primary instance applies a transaction only once the changes of all the transactions sent
+ * to workers before it are reconciled, and holds back reconciled changes of transactions sent
+ * after the ones it has not applied yet. Its balance, and so the balance in every result, is then
+ * exactly the one of processing all transactions of the customer one after the other.
+ */
 class CustomerActor extends AbstractActor {
 
-  public static Props getCustomerActor() {
+  private static final Reconcile RECONCILE = new Reconcile();
+
+  private final ActorRef statisticsActor;
+  private final ActorRef resultSinkActor;
+
+  // only set for workers, i.e., the instance that keeps the balance of the customer
+  private final ActorRef primaryActor;
+
+  // balance of the customer, or, for workers, changes not yet reconciled with the primary
+  private double balance = 0;
+
+  // primary: transactions applied by itself, and by workers, as far as reconciled
+  private long numberOfTransactionsApplied = 0;
+  private long numberOfWorkerTransactionsApplied = 0;
+  // primary: what has to wait for transactions that were sent before it
+  private final Deque<ProcessTransaction> waitingTransactions = new ArrayDeque<>();
+  private final List<BalanceChanged> waitingBalanceChanges = new ArrayList<>();
+
+  // worker: transactions whose changes are not yet reconciled, all sent after the same number
+  // of transactions to the primary
+  private int numberOfTransactionsToReconcile = 0;
+  private long numberOfPrecedingToReconcile = 0;
+  private boolean isReconciliationPending = false;
+
+  CustomerActor(ActorRef statisticsActor, ActorRef resultSinkActor, ActorRef primaryActor) {
+
+    this.statisticsActor = statisticsActor;
+    this.resultSinkActor = resultSinkActor;
+    this.primaryActor = primaryActor;
+  }
+
+  public static Props getCustomerActor(ActorRef statisticsActor, ActorRef resultSinkActor) {
 
-    return Props.create(CustomerActor.class, CustomerActor::new);
+    return Props.create(CustomerActor.class,
+        () -> new CustomerActor(statisticsActor, resultSinkActor, null));
+  }
+
+  /**
+   * @param statisticsActor Actor to which every processed transaction is reported
+   * @param resultSinkActor Actor to which the result of every processed transaction is reported
+   * @param primaryActor Customer Actor that keeps the balance of the customer
+   * @return {@link Props} to create a worker for commutative transactions of a hot customer
+   */
+  public static Props getCustomerWorker(ActorRef statisticsActor, ActorRef resultSinkActor,
+      ActorRef primaryActor) {
+
+    return Props.create(CustomerActor.class,
+        () -> new CustomerActor(statisticsActor, resultSinkActor, primaryActor));
+  }
+
+  @Override
+  public void postStop() {
+
+    // a worker must not take unreconciled changes with it
+    handOverChanges();
   }
 
   @Override
@@ -41,21 +113,153 @@ class CustomerActor extends AbstractActor {
 
     return receiveBuilder()
         .match(
-            Transaction.class,
+            ProcessTransaction.class,
             this::processTransaction)
+        .match(Reconcile.class,
+            this::reconcile)
+        .match(BalanceChanged.class,
+            this::applyBalanceChanged)
         .matchAny(o -> CustomSystemOut.INSTANCE.red(
             "Unknown message received in Customer Actor! " + o.toString()))
         .build();
   }
 
-  private void processTransaction(Transaction transaction) {
+  /**
+   * Operation called when the Actor receives a transaction. A worker processes it right away,
+   * whereas the primary instance may have to wait for transactions sent to workers before it.
+   *
+   * @param processTransaction Message with the transaction
+   */
+  private void processTransaction(ProcessTransaction processTransaction) {
+
+    if (primaryActor != null) {
+
+      if (numberOfTransactionsToReconcile > 0
+          && processTransaction.numberOfPreceding() != numberOfPrecedingToReconcile) {
+
+        // the changes accumulated so far must be applied before the primary goes on
+        handOverChanges();
+      }
+
+      numberOfPrecedingToReconcile = processTransaction.numberOfPreceding();
+      numberOfTransactionsToReconcile++;
+      apply(processTransaction);
+
+      if (!isReconciliationPending) {
+
+        // the message is queued after the transactions already in the mailbox, so that
+        // all of them are reconciled at once
+        isReconciliationPending = true;
+        getSelf().tell(RECONCILE, getSelf());
+      }
+
+      return;
+    }
+
+    if (waitingTransactions.isEmpty() && isDue(processTransaction)) {
+
+      applyAsPrimary(processTransaction);
+      return;
+    }
+
+    waitingTransactions.add(processTransaction);
+  }
+
+  /**
+   * Operation called by the primary instance when a worker reconciles its changes. They are
+   * applied, unless they belong to transactions sent after one that is still waiting, and then
+   * whatever was waiting for them is applied as well.
+   *
+   * @param balanceChanged Changes from a worker
+   */
+  private void applyBalanceChanged(BalanceChanged balanceChanged) {
+
+    if (balanceChanged.numberOfPreceding() > numberOfTransactionsApplied) {
+
+      waitingBalanceChanges.add(balanceChanged);
+      return;
+    }
+
+    balance += balanceChanged.balanceChange();
+    numberOfWorkerTransactionsApplied += balanceChanged.numberOfTransactions();
+
+    while (!waitingTransactions.isEmpty() && isDue(waitingTransactions.peek())) {
+
+      applyAsPrimary(waitingTransactions.remove());
+    }
+  }
+
+  private boolean isDue(ProcessTransaction processTransaction) {
+
+    return processTransaction.numberOfPreceding() <= numberOfWorkerTransactionsApplied;
+  }
+
+  private void applyAsPrimary(ProcessTransaction processTransaction) {
+
+    apply(processTransaction);
+    numberOfTransactionsApplied++;
+
+    if (waitingBalanceChanges.isEmpty()) {
+
+      return;
+    }
+
+    Iterator<BalanceChanged> iterator = waitingBalanceChanges.iterator();
+
+    while (iterator.hasNext()) {
+
+      BalanceChanged balanceChanged = iterator.next();
+
+      if (balanceChanged.numberOfPreceding() <= numberOfTransactionsApplied) {
+
+        iterator.remove();
+        balance += balanceChanged.balanceChange();
+        numberOfWorkerTransactionsApplied += balanceChanged.numberOfTransactions();
+      }
+    }
+  }
+
+  private void apply(ProcessTransaction processTransaction) {
+
+    Transaction transaction = processTransaction.transaction();
 
     CustomSystemOut.INSTANCE.printAsIs(getInfoMessage(transaction));
 
+    balance += transaction.transactionType().getBalanceChange(transaction.amount());
+
     CustomSystemOut.INSTANCE.printAsIs(
         "Processing done for " + transaction.customer().getColorfulCustomerId());
 
-    getContext().getParent().tell(new TransactionProcessed(), getSelf());
+    statisticsActor.tell(transaction, getSelf());
+    resultSinkActor.tell(
+        new TransactionResult(transaction, primaryActor == null ? balance : Double.NaN),
+        getSelf());
+    getContext().getParent().tell(
+        new TransactionProcessed(processTransaction.batchId(), transaction), getSelf());
+  }
+
+  /**
+   * Operation called by workers to hand the accumulated changes over to the primary Actor.
+   *
+   * @param reconcile Message to reconcile the balance
+   */
+  private void reconcile(Reconcile reconcile) {
+
+    isReconciliationPending = false;
+    handOverChanges();
+  }
+
+  private void handOverChanges() {
+
+    if (primaryActor == null || numberOfTransactionsToReconcile == 0) {
+
+      return;
+    }
+
+    primaryActor.tell(new BalanceChanged(balance, numberOfTransactionsToReconcile,
+        numberOfPrecedingToReconcile), getSelf());
+    balance = 0;
+    numberOfTransactionsToReconcile = 0;
   }
 
   private String getInfoMessage(Transaction transaction) {
@@ -65,7 +269,46 @@ class CustomerActor extends AbstractActor {
         + " for " + transaction.customer().getColorfulCustomerId();
   }
 
-  public record TransactionProcessed() {
+  /**
+   * Message asking to process a transaction.
+   *
+   * @param batchId Batch to which the transaction belongs
+   * @param transaction Transaction to be processed
+   * @param numberOfPreceding For the primary instance, number of transactions of the customer
+   * sent to workers before this one; for a worker, number of them sent to the primary instance
+   * before this one
+   */
+  public record ProcessTransaction(long batchId, Transaction transaction,
+                                   long numberOfPreceding) {
+
+    // nothing to add here: simple message for Actors
+  }
+
+  /**
+   * Message about the processing of a transaction.
+   *
+   * @param batchId Batch to which the transaction belongs
+   * @param transaction Transaction that was processed
+   */
+  public record TransactionProcessed(long batchId, Transaction transaction) {
+
+    // nothing to add here: simple message for Actors
+  }
+
+  private record Reconcile() {
+
+    // nothing to add here: simple message a worker sends to itself
+  }
+
+  /**
+   * Message from a worker to the primary Actor with changes to the balance of the customer.
+   *
+   * @param balanceChange Sum of the changes
+   * @param numberOfTransactions Number of transactions the changes come from
+   * @param numberOfPreceding Number of transactions sent to the primary instance before them
+   */
+  private record BalanceChanged(double balanceChange, int numberOfTransactions,
+                                long numberOfPreceding) {
 
     // nothing to add here: simple message for Actors
   }
@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.actor;
+
+import akka.Done;
+import akka.actor.AbstractActorWithTimers;
+import akka.actor.Props;
+import com.typesafe.config.Config;
+import edu.akka.sample.app.classic.data.definition.TransactionResult;
+import edu.akka.sample.app.classic.data.result.ColumnarResultWriter;
+import edu.akka.sample.app.classic.utils.CustomSystemOut;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Actor to which the results of processed transactions are reported, to be written to local
+ * files by a {@link ColumnarResultWriter}.
+ * <p>
+ * Results are buffered and written in big blocks, either when a block is full or when the flush
+ * interval is over. The Actor runs on the dispatcher meant for blocking IO, so that writing to
+ * disk never holds the threads of the Actors that process transactions.
+ * <p>
+ * The writer, along with its buffers, is only created with the first result, unless setting
+ * "sample.startup.lazy-actors" is off.
+ */
+public class ResultSinkActor extends AbstractActorWithTimers {
+
+  private static final String DISPATCHER = "akka.actor.default-blocking-io-dispatcher";
+
+  private static final Object FLUSH_TIMER = "flush-results";
+  private static final FlushIntervalOver FLUSH_INTERVAL_OVER = new FlushIntervalOver();
+
+  private final ResultSinkSettings settings;
+
+  private ColumnarResultWriter writer;
+
+  ResultSinkActor(ResultSinkSettings settings) {
+
+    this.settings = settings;
+  }
+
+  /**
+   * @param settings Where and how results are written
+   * @return {@link Props} to create the Result Sink Actor
+   */
+  public static Props getResultSinkActor(ResultSinkSettings settings) {
+
+    return Props.create(ResultSinkActor.class, () -> new ResultSinkActor(settings))
+        .withDispatcher(DISPATCHER);
+  }
+
+  @Override
+  public void preStart() throws IOException {
+
+    if (!getContext().getSystem().settings().config().getBoolean("sample.startup.lazy-actors")) {
+
+      start();
+    }
+  }
+
+  @Override
+  public void postStop() throws IOException {
+
+    if (writer != null) {
+
+      writer.close();
+    }
+  }
+
+  @Override
+  public Receive createReceive() {
+
+    return receiveBuilder()
+        .match(
+            TransactionResult.class,
+            this::append)
+        .match(FlushIntervalOver.class,
+            flushIntervalOver -> flush())
+        .match(Flush.class,
+            this::flush)
+        .matchAny(o -> CustomSystemOut.INSTANCE.red(
+            "Unknown message received in Result Sink Actor! " + o.toString()))
+        .build();
+  }
+
+  /**
+   * Creates the writer and starts flushing periodically, if not done yet.
+   */
+  private void start() throws IOException {
+
+    if (writer != null) {
+
+      return;
+    }
+
+    writer = new ColumnarResultWriter(settings.directory(), settings.rowsPerBlock(),
+        settings.maxFileSize());
+    getTimers().startTimerAtFixedRate(FLUSH_TIMER, FLUSH_INTERVAL_OVER, settings.flushInterval());
+  }
+
+  /**
+   * Operation called when the Actor receives the result of a processed transaction.
+   *
+   * @param result Result of a processed transaction
+   */
+  private void append(TransactionResult result) throws IOException {
+
+    start();
+    writer.append(result);
+  }
+
+  /**
+   * Operation called when the Actor is asked to flush, e.g., before the offset checkpoint is
+   * written, or right before the Actor System terminates. The sender is answered once everything
+   * is written and synced to disk.
+   *
+   * @param flush Message asking the Actor to flush
+   */
+  private void flush(Flush flush) throws IOException {
+
+    flush();
+
+    if (writer != null) {
+
+      writer.sync();
+    }
+
+    getSender().tell(Done.getInstance(), getSelf());
+  }
+
+  private void flush() throws IOException {
+
+    if (writer != null) {
+
+      writer.flush();
+    }
+  }
+
+  /**
+   * Settings of the output of results.
+   *
+   * @param directory Directory of the files
+   * @param rowsPerBlock Number of results buffered before they are written
+   * @param maxFileSize Size in bytes from which files are rotated
+   * @param flushInterval How long results may stay buffered, at most
+   */
+  public record ResultSinkSettings(Path directory, int rowsPerBlock, long maxFileSize,
+                                   Duration flushInterval) {
+
+    /**
+     * Reads the settings from the given configuration, e.g., section "sample.result-sink" of the
+     * Actor System configuration.
+     *
+     * @param config Configuration with the settings
+     * @return {@link ResultSinkSettings}
+     */
+    public static ResultSinkSettings fromConfig(Config config) {
+
+      return new ResultSinkSettings(
+          Path.of(config.getString("directory")),
+          config.getInt("rows-per-block"),
+          config.getBytes("max-file-size"),
+          config.getDuration("flush-interval"));
+    }
+  }
+
+  private record FlushIntervalOver() {
+
+    // nothing to add here: simple message the Actor sends to itself
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.actor;
+
+import akka.Done;
+import akka.actor.AbstractActorWithTimers;
+import akka.actor.Props;
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import edu.akka.sample.app.classic.data.statistics.StatisticsAccumulator;
+import edu.akka.sample.app.classic.data.statistics.WindowedStatistics;
+import edu.akka.sample.app.classic.utils.CustomSystemOut;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Actor that aggregates processed transactions per {@link TransactionType} and per
+ * {@link Customer}.
+ * <p>
+ * Every time a pane of the window elapses, the statistics of both the tumbling window (the
+ * last pane) and the sliding window (the last panes altogether) are appended to a local CSV file.
+ * Recording a transaction only updates primitive accumulators, so nothing is allocated per event.
+ * <p>
+ * The statistics of a customer take about 5 KiB per pane, i.e., about 24 KiB with 5 panes. They
+ * are kept while the customer has transactions in the sliding window, and then put aside to be
+ * reused by the next customer that shows up, so that memory follows the peak number of distinct
+ * customers per sliding window, and new statistics are only allocated when that peak grows.
+ * <p>
+ * The file is opened, and the panes start to elapse, only when the first transaction arrives,
+ * which keeps both out of the startup of the application, unless setting
+ * "sample.startup.lazy-actors" is off.
+ */
+public class StatisticsActor extends AbstractActorWithTimers {
+
+  private static final String HEADER = "time,window,dimension,key,count,sum,min,max,p50,p90,p99";
+
+  private static final Object PUBLISH_TIMER = "publish-statistics";
+  private static final PublishStatistics PUBLISH_STATISTICS = new PublishStatistics();
+
+  private final Duration paneDuration;
+  private final int numberOfPanes;
+  private final Path outputFile;
+
+  private final WindowedStatistics[] statisticsPerType;
+  private final Map<Customer, WindowedStatistics> statisticsPerCustomer = new HashMap<>();
+
+  // statistics of customers that were idle for a whole sliding window, empty and ready for reuse
+  private final Deque<WindowedStatistics> unusedCustomerStatistics = new ArrayDeque<>();
+
+  // reused every time the panes of a sliding window are merged
+  private final StatisticsAccumulator slidingWindow = new StatisticsAccumulator();
+
+  private BufferedWriter writer;
+
+  // so that stopping right after a flush does not publish the same windows once more
+  private boolean isRecordedSinceLastPublish = false;
+
+  StatisticsActor(Duration paneDuration, int numberOfPanes, Path outputFile) {
+
+    this.paneDuration = paneDuration;
+    this.numberOfPanes = numberOfPanes;
+    this.outputFile = outputFile;
+
+    statisticsPerType = new WindowedStatistics[TransactionType.values().length];
+
+    for (int i = 0; i < statisticsPerType.length; i++) {
+
+      statisticsPerType[i] = new WindowedStatistics(numberOfPanes);
+    }
+  }
+
+  /**
+   * @param paneDuration Duration of the tumbling window, which is also how often statistics are
+   * published
+   * @param numberOfPanes Number of tumbling windows that make up the sliding window
+   * @param outputFile File to which statistics are appended
+   * @return {@link Props} to create the Statistics Actor
+   */
+  public static Props getStatisticsActor(Duration paneDuration, int numberOfPanes,
+      Path outputFile) {
+
+    return Props.create(StatisticsActor.class,
+        () -> new StatisticsActor(paneDuration, numberOfPanes, outputFile));
+  }
+
+  @Override
+  public void preStart() throws IOException {
+
+    if (!getContext().getSystem().settings().config().getBoolean("sample.startup.lazy-actors")) {
+
+      start();
+    }
+  }
+
+  /**
+   * Opens the output file and starts publishing statistics periodically, if not done yet.
+   */
+  private void start() throws IOException {
+
+    if (writer != null) {
+
+      return;
+    }
+
+    boolean isNewFile = !Files.exists(outputFile) || Files.size(outputFile) == 0;
+
+    writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+    if (isNewFile) {
+
+      writer.write(HEADER);
+      writer.newLine();
+    }
+
+    getTimers().startTimerAtFixedRate(PUBLISH_TIMER, PUBLISH_STATISTICS, paneDuration);
+  }
+
+  @Override
+  public void postStop() throws IOException {
+
+    if (writer == null) {
+
+      return;
+    }
+
+    // whatever was recorded in the last, incomplete pane is not lost
+    if (isRecordedSinceLastPublish) {
+
+      publish(PUBLISH_STATISTICS);
+    }
+
+    writer.close();
+  }
+
+  @Override
+  public Receive createReceive() {
+
+    return receiveBuilder()
+        .match(
+            Transaction.class,
+            this::record)
+        .match(PublishStatistics.class,
+            this::publish)
+        .match(Flush.class,
+            this::flush)
+        .matchAny(o -> CustomSystemOut.INSTANCE.red(
+            "Unknown message received in Statistics Actor! " + o.toString()))
+        .build();
+  }
+
+  /**
+   * Operation called when the Actor receives a processed transaction. Its amount is recorded
+   * in the current pane of both its type and its customer.
+   *
+   * @param transaction Processed financial transaction
+   */
+  private void record(Transaction transaction) throws IOException {
+
+    start();
+    isRecordedSinceLastPublish = true;
+
+    double amount = transaction.amount();
+
+    statisticsPerType[transaction.transactionType().ordinal()].record(amount);
+
+    WindowedStatistics customerStatistics = statisticsPerCustomer.get(transaction.customer());
+
+    if (customerStatistics == null) {
+
+      customerStatistics = unusedCustomerStatistics.isEmpty()
+          ? new WindowedStatistics(numberOfPanes)
+          : unusedCustomerStatistics.pop();
+      statisticsPerCustomer.put(transaction.customer(), customerStatistics);
+    }
+
+    customerStatistics.record(amount);
+  }
+
+  /**
+   * Operation called when a pane elapses. The statistics of the tumbling and sliding windows are
+   * written to the output file and the windows are moved by one pane. Customers without any
+   * transaction in the whole sliding window are forgotten, and their statistics, which are empty
+   * by then, are kept for reuse.
+   *
+   * @param publishStatistics Message signaling that a pane elapsed
+   */
+  private void publish(PublishStatistics publishStatistics) throws IOException {
+
+    String time = Instant.now().toString();
+    isRecordedSinceLastPublish = false;
+
+    for (TransactionType transactionType : TransactionType.values()) {
+
+      WindowedStatistics statistics = statisticsPerType[transactionType.ordinal()];
+
+      write(time, "type", transactionType.name(), statistics);
+      statistics.roll();
+    }
+
+    Iterator<Entry<Customer, WindowedStatistics>> iterator =
+        statisticsPerCustomer.entrySet().iterator();
+
+    while (iterator.hasNext()) {
+
+      Entry<Customer, WindowedStatistics> entry = iterator.next();
+
+      write(time, "customer", entry.getKey().getCustomerId(), entry.getValue());
+      entry.getValue().roll();
+
+      if (entry.getValue().isEmpty()) {
+
+        unusedCustomerStatistics.push(entry.getValue());
+        iterator.remove();
+      }
+    }
+
+    writer.flush();
+  }
+
+  /**
+   * Operation called when the Actor is asked to flush, e.g., right before the Actor System
+   * terminates. Whatever was recorded in the current pane is published without waiting for it to
+   * elapse. If nothing was ever recorded, there is nothing to flush.
+   *
+   * @param flush Message asking the Actor to flush
+   */
+  private void flush(Flush flush) throws IOException {
+
+    if (writer != null) {
+
+      publish(PUBLISH_STATISTICS);
+    }
+
+    getSender().tell(Done.getInstance(), getSelf());
+  }
+
+  private void write(String time, String dimension, String key, WindowedStatistics statistics)
+      throws IOException {
+
+    if (!statistics.tumbling().isEmpty()) {
+
+      write(time, "tumbling", dimension, key, statistics.tumbling());
+    }
+
+    if (!statistics.sliding(slidingWindow).isEmpty()) {
+
+      write(time, "sliding", dimension, key, slidingWindow);
+    }
+  }
+
+  private void write(String time, String window, String dimension, String key,
+      StatisticsAccumulator statistics) throws IOException {
+
+    writer.write(String.format(Locale.ROOT, "%s,%s,%s,%s,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f",
+        time, window, dimension, key, statistics.getCount(), statistics.getSum(),
+        statistics.getMin(), statistics.getMax(), statistics.getPercentile(50),
+        statistics.getPercentile(90), statistics.getPercentile(99)));
+    writer.newLine();
+  }
+
+  private record PublishStatistics() {
+
+    // nothing to add here: simple message the Actor sends to itself whenever a pane elapses
+  }
+}
@@ -24,65 +24,209 @@
 
 package edu.akka.sample.app.classic.actor;
 
-import akka.actor.AbstractActor;
+import akka.actor.AbstractActorWithTimers;
 import akka.actor.ActorRef;
+import akka.actor.Props;
 import akka.actor.Status;
+import com.typesafe.config.Config;
+import edu.akka.sample.app.classic.actor.CustomerActor.ProcessTransaction;
 import edu.akka.sample.app.classic.actor.CustomerActor.TransactionProcessed;
 import edu.akka.sample.app.classic.data.definition.Customer;
 import edu.akka.sample.app.classic.data.definition.Transaction;
 import edu.akka.sample.app.classic.utils.CustomSystemOut;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Actor that receives a list of transactions and sends each one of them to the
  * respective child Customer Actor for processing.
+ * <p>
+ * Several batches of transactions may be in flight at once. A batch sent as {@link SubmitBatch}
+ * is completed through its own future, whereas a batch sent as a plain list is answered with
+ * {@link Status.Success}, which suits the ask pattern.
+ * <p>
+ * The load of every customer is tracked: how many transactions wait in the mailbox of its
+ * Customer Actor and how many transactions per second it receives. A customer that goes over
+ * either threshold is hot, and its commutative transactions are spread over worker Actors,
+ * while the others still go to its Customer Actor, in order.
  */
-public class TransactionsActor extends AbstractActor {
+public class TransactionsActor extends AbstractActorWithTimers {
 
-  private int numberOfTransactionsToProcess;
-  private ActorRef parentActor;
+  private static final Object MEASURE_RATES_TIMER = "measure-rates";
+  private static final MeasureRates MEASURE_RATES = new MeasureRates();
+  private static final Object DRAIN_DEADLINE_TIMER = "drain-deadline";
+  private static final DrainDeadline DRAIN_DEADLINE = new DrainDeadline();
+
+  private final ActorRef statisticsActor;
+  private final ActorRef resultSinkActor;
+  private final HotCustomerSettings hotCustomerSettings;
+  private final Props customerProps;
+
+  private final Map<Customer, CustomerLoad> customerLoads = new HashMap<>();
+
+  // batches that were not completed yet, and the sum of their pending transactions
+  private final Map<Long, Batch> pendingBatches = new HashMap<>();
+  private long nextBatchId = 0;
+  private int numberOfTransactionsToProcess = 0;
+
+  // accounting of all transactions since the Actor started
+  private long numberOfTransactionsCompleted = 0;
+
+  // set once draining starts: from then on, no transaction is accepted anymore
+  private ActorRef drainRequester;
+  private boolean isDrainCompleted = false;
+
+  TransactionsActor(ActorRef statisticsActor, ActorRef resultSinkActor,
+      HotCustomerSettings hotCustomerSettings, Props customerProps) {
+
+    this.statisticsActor = statisticsActor;
+    this.resultSinkActor = resultSinkActor;
+    this.hotCustomerSettings = hotCustomerSettings;
+    this.customerProps = customerProps;
+  }
+
+  /**
+   * @param statisticsActor Actor to which every processed transaction is reported
+   * @param resultSinkActor Actor to which the result of every processed transaction is reported
+   * @param hotCustomerSettings When customers are hot and how their load is spread
+   * @return {@link Props} to create the Transactions Actor
+   */
+  public static Props getTransactionsActor(ActorRef statisticsActor, ActorRef resultSinkActor,
+      HotCustomerSettings hotCustomerSettings) {
+
+    return getTransactionsActor(statisticsActor, resultSinkActor, hotCustomerSettings,
+        CustomerActor.getCustomerActor(statisticsActor, resultSinkActor));
+  }
+
+  /**
+   * @param statisticsActor Actor to which every processed transaction is reported
+   * @param resultSinkActor Actor to which the result of every processed transaction is reported
+   * @param hotCustomerSettings When customers are hot and how their load is spread
+   * @param customerProps {@link Props} to create the Actor of every customer, e.g., one that
+   * stands in for the {@link CustomerActor} in tests; workers are always {@link CustomerActor}s
+   * @return {@link Props} to create the Transactions Actor
+   */
+  static Props getTransactionsActor(ActorRef statisticsActor, ActorRef resultSinkActor,
+      HotCustomerSettings hotCustomerSettings, Props customerProps) {
+
+    return Props.create(TransactionsActor.class,
+        () -> new TransactionsActor(statisticsActor, resultSinkActor, hotCustomerSettings,
+            customerProps));
+  }
+
+  @Override
+  public void preStart() {
+
+    if (!getContext().getSystem().settings().config().getBoolean("sample.startup.lazy-actors")) {
+
+      startMeasuringRates();
+    }
+  }
 
   @Override
   public Receive createReceive() {
 
     return receiveBuilder()
+        .match(
+            SubmitBatch.class,
+            submitBatch -> sendToCustomers(submitBatch.transactions(),
+                new Batch(submitBatch.transactions().size(), submitBatch.completion(), null)))
         .match(
             List.class,
-            this::sendToCustomers)
+            this::receiveList)
         .match(TransactionProcessed.class,
             this::acknowledgeProcessedTransaction)
+        .match(MeasureRates.class,
+            this::measureRates)
+        .match(Drain.class,
+            this::drain)
+        .match(DrainDeadline.class,
+            drainDeadline -> completeDrain(true))
         .matchAny(o -> CustomSystemOut.INSTANCE.red(
             "Unknown message received in TransactionsActor! " + o.toString()))
         .build();
   }
 
+  /**
+   * Operation called when the Actor receives transactions as a plain list, whose sender is
+   * answered once all of them are processed.
+   *
+   * @param transactions Financial transactions to be processed
+   */
+  @SuppressWarnings("unchecked")
+  private void receiveList(List<?> transactions) {
+
+    // only lists of transactions are ever sent to this Actor
+    sendToCustomers((List<Transaction>) transactions,
+        new Batch(transactions.size(), null, getSender()));
+  }
+
   /**
    * Operation called when the Actor receives transactions. Given the customer associated
    * to the transaction, this operation creates or finds the related Customer Actor that is
-   * responsible for processing it.
+   * responsible for processing it, or one of its workers, if the customer is hot.
    *
    * @param transactions Financial transactions to be processed
+   * @param batch Batch to be completed once all the transactions are processed
    */
-  private void sendToCustomers(List<Transaction> transactions) {
+  private void sendToCustomers(List<Transaction> transactions, Batch batch) {
+
+    if (drainRequester != null) {
+
+      CustomSystemOut.INSTANCE.red("Draining: " + transactions.size() + " transactions refused");
+      batch.fail(new IllegalStateException("Transactions are not accepted while draining"),
+          getSelf());
+
+      return;
+    }
+
+    if (transactions.isEmpty()) {
+
+      batch.complete(getSelf());
+      return;
+    }
 
-    determineParentActor();
+    // unless Actors start eagerly, rates are only measured once there are transactions
+    startMeasuringRates();
 
-    numberOfTransactionsToProcess = transactions.size();
+    long batchId = nextBatchId++;
+    pendingBatches.put(batchId, batch);
+    numberOfTransactionsToProcess += transactions.size();
 
-    CustomSystemOut.INSTANCE.yellow(
-        "Number of received transactions to process: " + numberOfTransactionsToProcess);
+    CustomSystemOut.INSTANCE.yellow("Number of received transactions to process in batch "
+        + batchId + ": " + transactions.size());
 
     transactions.forEach(transaction -> {
 
-      ActorRef customerActor = getActorRef(transaction.customer());
+      CustomerLoad customerLoad = getCustomerLoad(transaction.customer());
 
       CustomSystemOut.INSTANCE.printAsIs(
           "Sending message to actor for customer " + transaction.customer()
               .getColorfulCustomerId());
-      customerActor.tell(transaction, customerActor);
+      customerLoad.send(batchId, transaction, getSelf());
+
+      if (!customerLoad.isHot && customerLoad.backlog >= hotCustomerSettings.mailboxDepth()) {
+
+        markAsHot(transaction.customer(), customerLoad);
+      }
     });
   }
 
+  /**
+   * Starts measuring the rates of customers periodically, if not done yet.
+   */
+  private void startMeasuringRates() {
+
+    if (!getTimers().isTimerActive(MEASURE_RATES_TIMER)) {
+
+      getTimers().startTimerAtFixedRate(MEASURE_RATES_TIMER, MEASURE_RATES,
+          hotCustomerSettings.rateInterval());
+    }
+  }
+
   /**
    * Operation called when the Actor receives a message from the child Customer Actor
    * signaling that the transaction was processed.
@@ -91,12 +235,39 @@ public class TransactionsActor extends AbstractActor {
    */
   private void acknowledgeProcessedTransaction(TransactionProcessed transactionProcessed) {
 
+    CustomerLoad customerLoad = customerLoads.get(transactionProcessed.transaction().customer());
+
+    if (customerLoad != null && getSender().equals(customerLoad.customerActor)) {
+
+      customerLoad.backlog--;
+    }
+
+    numberOfTransactionsCompleted++;
+
+    Batch batch = pendingBatches.get(transactionProcessed.batchId());
+
+    if (batch == null) {
+
+      // the batch was abandoned while draining
+      return;
+    }
+
     numberOfTransactionsToProcess--;
 
+    if (--batch.pending == 0) {
+
+      CustomSystemOut.INSTANCE.yellow(
+          "All transactions of batch " + transactionProcessed.batchId() + " were processed");
+      pendingBatches.remove(transactionProcessed.batchId());
+      batch.complete(getSelf());
+    }
+
     if (numberOfTransactionsToProcess == 0) {
 
-      CustomSystemOut.INSTANCE.yellow("Informing the Parent Actor that all transactions were processed");
-      parentActor.tell(new Status.Success("OK"), getSelf());
+      if (drainRequester != null) {
+
+        completeDrain(false);
+      }
 
       return;
     }
@@ -105,13 +276,148 @@ public class TransactionsActor extends AbstractActor {
   }
 
   /**
-   * Registers the Parent Actor that has sent the transactions, so that it can be informed later
-   * on about the completion of the whole processing.
+   * Operation called when the Actor is asked to drain: new transactions are refused from now on,
+   * and the requester is answered with {@link Drained} as soon as the pending transactions are
+   * processed, or when the deadline is over, whatever comes first.
+   *
+   * @param drain Message asking the Actor to drain
+   */
+  private void drain(Drain drain) {
+
+    if (drainRequester != null) {
+
+      CustomSystemOut.INSTANCE.red("Already draining: request is ignored");
+      return;
+    }
+
+    drainRequester = getSender();
+
+    CustomSystemOut.INSTANCE.yellow("Draining " + numberOfTransactionsToProcess
+        + " pending transactions within " + drain.deadline().toMillis() + " ms");
+
+    if (numberOfTransactionsToProcess == 0) {
+
+      completeDrain(false);
+      return;
+    }
+
+    getTimers().startSingleTimer(DRAIN_DEADLINE_TIMER, DRAIN_DEADLINE, drain.deadline());
+  }
+
+  /**
+   * Answers the drain requester with how many transactions were completed and how many had to
+   * be abandoned because the deadline was over. The batches with abandoned transactions are
+   * failed as well, instead of leaving their senders waiting for an answer that will not come.
+   *
+   * @param isDeadlineOver True, if the pending transactions were not processed in time
+   */
+  private void completeDrain(boolean isDeadlineOver) {
+
+    if (isDrainCompleted) {
+
+      return;
+    }
+
+    isDrainCompleted = true;
+
+    if (isDeadlineOver) {
+
+      CustomSystemOut.INSTANCE.red("Drain deadline is over: "
+          + numberOfTransactionsToProcess + " transactions are abandoned");
+      pendingBatches.values().forEach(batch -> batch.fail(new IllegalStateException(
+          batch.pending + " transactions abandoned while draining"), getSelf()));
+      pendingBatches.clear();
+    }
+
+    getTimers().cancel(DRAIN_DEADLINE_TIMER);
+
+    drainRequester.tell(
+        new Drained(numberOfTransactionsCompleted, numberOfTransactionsToProcess), getSelf());
+  }
+
+  /**
+   * Operation called periodically to measure how many transactions per second each customer
+   * receives. Customers over the rate threshold become hot, whereas hot customers whose rate and
+   * backlog went below half of the thresholds are not hot anymore.
+   *
+   * @param measureRates Message signaling that the rates can be measured
+   */
+  private void measureRates(MeasureRates measureRates) {
+
+    double seconds = hotCustomerSettings.rateInterval().toNanos() / 1_000_000_000.0;
+
+    customerLoads.forEach((customer, customerLoad) -> {
+
+      customerLoad.rate = customerLoad.receivedSinceLastMeasure / seconds;
+      customerLoad.receivedSinceLastMeasure = 0;
+
+      if (!customerLoad.isHot
+          && customerLoad.rate >= hotCustomerSettings.transactionsPerSecond()) {
+
+        markAsHot(customer, customerLoad);
+      }
+      else if (customerLoad.isHot
+          && customerLoad.rate < hotCustomerSettings.transactionsPerSecond() / 2
+          && customerLoad.backlog < hotCustomerSettings.mailboxDepth() / 2) {
+
+        CustomSystemOut.INSTANCE.yellow(
+            "Customer " + customer.getColorfulCustomerId() + " is not hot anymore");
+        customerLoad.isHot = false;
+      }
+    });
+  }
+
+  /**
+   * Spreads the commutative transactions of the given customer over workers from now on. The
+   * workers are created the first time the customer is hot, and kept for the next times.
+   *
+   * @param customer Hot customer
+   * @param customerLoad Load of the customer
+   */
+  private void markAsHot(Customer customer, CustomerLoad customerLoad) {
+
+    if (hotCustomerSettings.numberOfWorkers() == 0) {
+
+      return;
+    }
+
+    CustomSystemOut.INSTANCE.red("Customer " + customer.getColorfulCustomerId()
+        + " is hot: " + customerLoad.backlog + " transactions waiting, "
+        + Math.round(customerLoad.rate) + " transactions per second");
+
+    if (customerLoad.workers == null) {
+
+      customerLoad.workers = new ActorRef[hotCustomerSettings.numberOfWorkers()];
+
+      for (int i = 0; i < customerLoad.workers.length; i++) {
+
+        customerLoad.workers[i] = getContext().actorOf(
+            CustomerActor.getCustomerWorker(statisticsActor, resultSinkActor,
+                customerLoad.customerActor),
+            "customer-" + customer.getCustomerId() + "-worker-" + i);
+      }
+    }
+
+    customerLoad.isHot = true;
+  }
+
+  /**
+   * Finds or creates the load of the given Customer, along with its child Actor.
+   *
+   * @param customer Customer
+   * @return Load of the given Customer
    */
-  private void determineParentActor() {
+  private CustomerLoad getCustomerLoad(Customer customer) {
+
+    CustomerLoad customerLoad = customerLoads.get(customer);
+
+    if (customerLoad == null) {
+
+      customerLoad = new CustomerLoad(getActorRef(customer));
+      customerLoads.put(customer, customerLoad);
+    }
 
-    parentActor = getSender();
-    CustomSystemOut.INSTANCE.yellow("Parent is determined: " + parentActor.path());
+    return customerLoad;
   }
 
   /**
@@ -131,7 +437,200 @@ public class TransactionsActor extends AbstractActor {
     }
 
     CustomSystemOut.INSTANCE.yellow("Actor for " + actorName + " is created");
-    return getContext().actorOf(CustomerActor.getCustomerActor(), actorName);
+    return getContext().actorOf(customerProps, actorName);
+
+  }
+
+  /**
+   * Settings of the detection of hot customers.
+   *
+   * @param mailboxDepth Number of transactions waiting for the Customer Actor from which the
+   * customer is hot
+   * @param transactionsPerSecond Rate of transactions from which the customer is hot
+   * @param numberOfWorkers Number of workers for each hot customer, or 0 to never spread the load
+   * @param rateInterval How often rates are measured
+   */
+  public record HotCustomerSettings(int mailboxDepth, double transactionsPerSecond,
+                                    int numberOfWorkers, Duration rateInterval) {
+
+    public HotCustomerSettings {
+
+      // written so that a NaN rate, which fails every comparison, is rejected as well
+      if (mailboxDepth < 1 || !(transactionsPerSecond > 0) || numberOfWorkers < 0
+          || rateInterval.isNegative() || rateInterval.isZero()) {
+
+        throw new IllegalArgumentException("Invalid settings for hot customers");
+      }
+    }
+
+    /**
+     * Reads the settings from the given configuration, e.g., section "sample.hot-customers" of
+     * the Actor System configuration.
+     *
+     * @param config Configuration with the settings
+     * @return {@link HotCustomerSettings}
+     */
+    public static HotCustomerSettings fromConfig(Config config) {
+
+      return new HotCustomerSettings(
+          config.getInt("mailbox-depth"),
+          config.getDouble("transactions-per-second"),
+          config.getInt("number-of-workers"),
+          config.getDuration("rate-interval"));
+    }
+  }
+
+  /**
+   * Load of a customer, i.e., where its transactions go and how many of them it receives.
+   */
+  private static class CustomerLoad {
+
+    private final ActorRef customerActor;
+    private ActorRef[] workers;
+    private int nextWorker = 0;
+
+    private boolean isHot = false;
+    // transactions sent to the Customer Actor that were not processed yet
+    private int backlog = 0;
+    // so that the Customer Actor applies transactions in the order they were sent
+    private long sentToCustomerActor = 0;
+    private long sentToWorkers = 0;
+    private int receivedSinceLastMeasure = 0;
+    private double rate = 0;
+
+    CustomerLoad(ActorRef customerActor) {
+
+      this.customerActor = customerActor;
+    }
+
+    /**
+     * Sends the given transaction to the Actor that should process it.
+     *
+     * @param batchId Batch to which the transaction belongs
+     * @param transaction Transaction of the customer
+     * @param sender Transactions Actor
+     */
+    void send(long batchId, Transaction transaction, ActorRef sender) {
+
+      receivedSinceLastMeasure++;
+
+      if (isHot && transaction.transactionType().isCommutative()) {
+
+        nextWorker = (nextWorker + 1) % workers.length;
+        workers[nextWorker].tell(
+            new ProcessTransaction(batchId, transaction, sentToCustomerActor), sender);
+        sentToWorkers++;
+
+        return;
+      }
+
+      backlog++;
+      customerActor.tell(new ProcessTransaction(batchId, transaction, sentToWorkers), sender);
+      sentToCustomerActor++;
+    }
+  }
+
+  /**
+   * Batch of transactions in flight, and how its completion is signaled: either through the
+   * future of a {@link SubmitBatch}, or by answering the Actor that sent a plain list.
+   */
+  private static class Batch {
+
+    private final int numberOfTransactions;
+    private final CompletableFuture<BatchProcessed> completion;
+    private final ActorRef replyTo;
+
+    // transactions of the batch that were not processed yet
+    private int pending;
+
+    Batch(int numberOfTransactions, CompletableFuture<BatchProcessed> completion,
+        ActorRef replyTo) {
+
+      this.numberOfTransactions = numberOfTransactions;
+      this.completion = completion;
+      this.replyTo = replyTo;
+      this.pending = numberOfTransactions;
+    }
+
+    void complete(ActorRef self) {
+
+      if (completion != null) {
+
+        completion.complete(new BatchProcessed(numberOfTransactions));
+      }
+      else {
+
+        replyTo.tell(new Status.Success("OK"), self);
+      }
+    }
+
+    void fail(Throwable cause, ActorRef self) {
+
+      if (completion != null) {
+
+        completion.completeExceptionally(cause);
+      }
+      else {
+
+        replyTo.tell(new Status.Failure(cause), self);
+      }
+    }
+  }
+
+  /**
+   * Message with a batch of transactions to be processed. Instead of answering the sender, the
+   * Actor completes the given future once all the transactions are processed, or fails it with
+   * an {@link IllegalStateException} if the batch is refused or abandoned while draining.
+   * <p>
+   * See {@link TransactionsClient}, which sends this message.
+   *
+   * @param transactions Financial transactions to be processed
+   * @param completion Future to be completed with {@link BatchProcessed}
+   */
+  public record SubmitBatch(List<Transaction> transactions,
+                            CompletableFuture<BatchProcessed> completion) {
+
+    // nothing to add here: simple message for Actors
+  }
+
+  /**
+   * Result of a batch sent as {@link SubmitBatch}.
+   *
+   * @param numberOfTransactions Number of transactions of the batch, all of them processed
+   */
+  public record BatchProcessed(int numberOfTransactions) {
+
+    // nothing to add here: simple message for Actors
+  }
+
+  /**
+   * Message asking the Actor to stop accepting transactions and to finish the pending ones.
+   *
+   * @param deadline How long to wait for the pending transactions, at most
+   */
+  public record Drain(Duration deadline) {
+
+    // nothing to add here: simple message for Actors
+  }
+
+  /**
+   * Answer to {@link Drain}.
+   *
+   * @param completed Number of transactions processed since the Actor started
+   * @param abandoned Number of pending transactions that were not processed within the deadline
+   */
+  public record Drained(long completed, long abandoned) {
+
+    // nothing to add here: simple message for Actors
+  }
+
+  private record DrainDeadline() {
+
+    // nothing to add here: simple message the Actor sends to itself
+  }
+
+  private record MeasureRates() {
 
+    // nothing to add here: simple message the Actor sends to itself
   }
 }
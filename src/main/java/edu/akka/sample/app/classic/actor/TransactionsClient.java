@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.actor;
+
+import akka.actor.ActorRef;
+import edu.akka.sample.app.classic.actor.TransactionsActor.BatchProcessed;
+import edu.akka.sample.app.classic.actor.TransactionsActor.SubmitBatch;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Client of the Transactions Actor, with which batches of transactions are submitted and their
+ * completion is tracked without the ask pattern: no temporary Actor is created per batch, and
+ * nobody needs to block while waiting.
+ * <p>
+ * Several batches may be submitted before the previous ones complete. Transactions of the same
+ * customer are processed in the order they were submitted, but batches may complete in any order.
+ */
+public class TransactionsClient {
+
+  private final ActorRef transactionsActor;
+  private final Executor executor;
+
+  /**
+   * @param transactionsActor Transactions Actor
+   * @param executor Executor on which whatever is composed with the returned futures runs, so
+   * that it never runs on the thread of the Transactions Actor, e.g., the dispatcher of the
+   * Actor System
+   */
+  public TransactionsClient(ActorRef transactionsActor, Executor executor) {
+
+    this.transactionsActor = transactionsActor;
+    this.executor = executor;
+  }
+
+  /**
+   * Submits a batch of transactions for processing.
+   *
+   * @param transactions Financial transactions to be processed
+   * @return Future completed once all the transactions are processed, or failed with an
+   * {@link IllegalStateException} if the batch is refused or abandoned while draining
+   */
+  public CompletableFuture<BatchProcessed> submit(List<Transaction> transactions) {
+
+    CompletableFuture<BatchProcessed> completion = new CompletableFuture<>();
+    transactionsActor.tell(new SubmitBatch(transactions, completion), ActorRef.noSender());
+
+    return completion.thenApplyAsync(Function.identity(), executor);
+  }
+}
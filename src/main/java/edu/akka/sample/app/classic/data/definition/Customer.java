@@ -24,24 +24,47 @@
 
 package edu.akka.sample.app.classic.data.definition;
 
+import java.util.Objects;
+
 /**
  * Represents a customer.
+ * <p>
+ * Customers are identified by their identification only, i.e., the color mark is not taken
+ * into account when comparing them.
  */
-public enum Customer {
+public final class Customer {
+
+  public static final Customer CUSTOMER_ID_1 =
+      new Customer("1fd40c65-f596-45d8-9e0a-632c37ccb771", "\u001B[35m");
+  public static final Customer CUSTOMER_ID_2 =
+      new Customer("00221321-592f-49f7-933a-e6aebdc716a6", "\033[0;32m");
+  public static final Customer CUSTOMER_ID_3 =
+      new Customer("ed870e05-ac7a-4847-8d40-bb37f1fe4880", "\033[0;34m");
 
-  CUSTOMER_ID_1("1fd40c65-f596-45d8-9e0a-632c37ccb771", "\u001B[35m"),
-  CUSTOMER_ID_2("00221321-592f-49f7-933a-e6aebdc716a6", "\033[0;32m"),
-  CUSTOMER_ID_3("ed870e05-ac7a-4847-8d40-bb37f1fe4880", "\033[0;34m");
+  // colors picked for customers that are not given one
+  private static final String[] COLORS = {"\u001B[35m", "\033[0;32m", "\033[0;34m", "\033[0;36m"};
 
   private final String customerId;
   private final String color;
 
-  Customer(String customerId, String color) {
+  /**
+   * @param customerId Customer identification
+   * @param color Color mark for printing to the output
+   */
+  public Customer(String customerId, String color) {
 
-    this.customerId = customerId;
+    this.customerId = Objects.requireNonNull(customerId);
     this.color = color;
   }
 
+  /**
+   * @param customerId Customer identification, from which a color mark is picked
+   */
+  public Customer(String customerId) {
+
+    this(customerId, COLORS[Math.floorMod(customerId.hashCode(), COLORS.length)]);
+  }
+
   /**
    * @return Customer identification
    */
@@ -57,4 +80,22 @@ public enum Customer {
 
     return color + customerId;
   }
-}
\ No newline at end of file
+
+  @Override
+  public boolean equals(Object o) {
+
+    return this == o || (o instanceof Customer other && customerId.equals(other.customerId));
+  }
+
+  @Override
+  public int hashCode() {
+
+    return customerId.hashCode();
+  }
+
+  @Override
+  public String toString() {
+
+    return customerId;
+  }
+}
@@ -26,10 +26,42 @@ package edu.akka.sample.app.classic.data.definition;
 
 /**
  * Supported types of transactions.
+ * <p>
+ * Receipts and reimbursements credit the balance of the customer, while payments debit it.
+ * Credits are commutative, i.e., the balance does not depend on the order they are applied in,
+ * whereas payments must keep their order, since whether one is covered depends on everything
+ * that happened before it.
  */
 public enum TransactionType {
 
-  RECEIPT,
-  PAY,
-  REIMBURSE;
+  RECEIPT(1, true),
+  PAY(-1, false),
+  REIMBURSE(1, true);
+
+  private final int balanceSign;
+  private final boolean commutative;
+
+  TransactionType(int balanceSign, boolean commutative) {
+
+    this.balanceSign = balanceSign;
+    this.commutative = commutative;
+  }
+
+  /**
+   * @param amount Amount of a transaction of this type
+   * @return How much the transaction changes the balance of the customer
+   */
+  public double getBalanceChange(double amount) {
+
+    return balanceSign * amount;
+  }
+
+  /**
+   * @return True, if transactions of this type can be processed in any order, without changing
+   * the final balance of the customer
+   */
+  public boolean isCommutative() {
+
+    return commutative;
+  }
 }
@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.provider;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Checkpoint of the offset up to which transactions were read and acknowledged, i.e., fully
+ * processed, so that reading can resume from there after a restart instead of from the beginning.
+ * <p>
+ * The offset is written to a temporary file, which is synced to disk and then renamed over the
+ * checkpoint file, so that the checkpoint is always either the previous or the new offset, never
+ * a partially written one. The directory is synced after the rename as well, so that the rename
+ * itself survives a crash. Before the offset is written, the results of the acknowledged
+ * transactions are flushed, so that the checkpoint never gets ahead of the results.
+ * <p>
+ * Since writing on every acknowledgement would be costly for small batches, the offset is written
+ * at most once per interval, plus whenever {@link #save()} is called. Transactions acknowledged
+ * after the last written offset are processed again after a restart, i.e., processing is at least
+ * once.
+ */
+public class OffsetCheckpoint {
+
+  private final Path checkpointFile;
+  private final Path temporaryFile;
+  private final long intervalInNanos;
+  private final Flushable results;
+
+  private int acknowledgedOffset = 0;
+  private int savedOffset = 0;
+  private long lastSaveTime;
+
+  /**
+   * @param checkpointFile File that keeps the offset
+   * @param interval Minimum time between two writes of the offset
+   */
+  public OffsetCheckpoint(Path checkpointFile, Duration interval) {
+
+    this(checkpointFile, interval, () -> {
+    });
+  }
+
+  /**
+   * @param checkpointFile File that keeps the offset
+   * @param interval Minimum time between two writes of the offset
+   * @param results Flushes the results of acknowledged transactions, before the offset is written
+   */
+  public OffsetCheckpoint(Path checkpointFile, Duration interval, Flushable results) {
+
+    this.checkpointFile = checkpointFile;
+    this.temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+    this.intervalInNanos = interval.toNanos();
+    this.results = results;
+    this.lastSaveTime = System.nanoTime();
+  }
+
+  /**
+   * Reads the offset from the checkpoint file.
+   *
+   * @return Offset from which reading should resume, or 0, if there is no checkpoint
+   * @throws IOException If the checkpoint file exists, but cannot be read
+   */
+  public synchronized int load() throws IOException {
+
+    if (!Files.exists(checkpointFile)) {
+
+      return 0;
+    }
+
+    String content = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+
+    try {
+
+      acknowledgedOffset = Integer.parseInt(content);
+      savedOffset = acknowledgedOffset;
+
+      return acknowledgedOffset;
+    }
+    catch (NumberFormatException e) {
+
+      throw new IOException("Invalid checkpoint in " + checkpointFile + ": " + content, e);
+    }
+  }
+
+  /**
+   * Advances the offset by the given number of acknowledged transactions, and writes it, if the
+   * interval since the last write is over.
+   *
+   * @param numberOfTransactions How many transactions were acknowledged
+   * @throws IOException If the offset cannot be written
+   */
+  public synchronized void acknowledge(int numberOfTransactions) throws IOException {
+
+    acknowledgedOffset += numberOfTransactions;
+
+    if (System.nanoTime() - lastSaveTime >= intervalInNanos) {
+
+      save();
+    }
+  }
+
+  /**
+   * Flushes the results, and then writes the acknowledged offset, if not written yet.
+   *
+   * @throws IOException If the results cannot be flushed or the offset cannot be written
+   */
+  public synchronized void save() throws IOException {
+
+    if (acknowledgedOffset == savedOffset) {
+
+      return;
+    }
+
+    results.flush();
+
+    try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      channel.write(ByteBuffer.wrap(
+          Integer.toString(acknowledgedOffset).getBytes(StandardCharsets.UTF_8)));
+      channel.force(true);
+    }
+
+    Files.move(temporaryFile, checkpointFile,
+        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    syncDirectory();
+
+    savedOffset = acknowledgedOffset;
+    lastSaveTime = System.nanoTime();
+  }
+
+  /**
+   * Removes the checkpoint, e.g., once all transactions were processed, so that the next time
+   * reading starts from the beginning. The results are flushed first, as for {@link #save()}.
+   *
+   * @throws IOException If the results cannot be flushed or the checkpoint file cannot be removed
+   */
+  public synchronized void clear() throws IOException {
+
+    results.flush();
+    Files.deleteIfExists(checkpointFile);
+
+    acknowledgedOffset = 0;
+    savedOffset = 0;
+  }
+
+  /**
+   * @return Offset up to which transactions were acknowledged
+   */
+  public synchronized int getAcknowledgedOffset() {
+
+    return acknowledgedOffset;
+  }
+
+  /**
+   * Syncs the directory of the checkpoint to disk, so that the rename of the temporary file is
+   * durable. Not every platform can open a directory, e.g., Windows cannot: there, the rename is
+   * left to the file system.
+   */
+  private void syncDirectory() {
+
+    try (FileChannel directory = FileChannel.open(
+        checkpointFile.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+
+      directory.force(true);
+    }
+    catch (IOException e) {
+
+      // the directory cannot be synced on this platform
+    }
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.provider;
+
+import com.typesafe.config.Config;
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Provider that synthesizes transaction data, to be used instead of {@link TransactionProvider}
+ * for soak and stress tests.
+ * <p>
+ * Customers are picked following a Zipfian distribution, so that a few of them concentrate most
+ * of the transactions, like in production. Types follow the configured mix, amounts follow a
+ * log-normal distribution, and transactions are handed out no faster than the target rate.
+ * Given the same {@link Settings}, exactly the same transactions are always generated.
+ */
+public class SyntheticTransactionProvider implements TransactionSource {
+
+  private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+  private final Settings settings;
+  private final SplittableRandom random;
+
+  private final Customer[] customers;
+  // cumulative probabilities of picking each customer and each type, respectively
+  private final double[] customerDistribution;
+  private final double[] transactionTypeDistribution;
+
+  // this is an offset pointing to the next transaction to be generated
+  private int numberOfTransactionsRead = 0;
+  // skipped transactions are part of the offset, but do not count for the target rate
+  private int numberOfTransactionsSkipped = 0;
+  private long startTime = -1;
+
+  /**
+   * @param settings How transactions are generated
+   */
+  public SyntheticTransactionProvider(Settings settings) {
+
+    this.settings = settings;
+    this.random = new SplittableRandom(settings.seed());
+
+    customers = new Customer[settings.numberOfCustomers()];
+    customerDistribution = new double[settings.numberOfCustomers()];
+
+    for (int i = 0; i < customers.length; i++) {
+
+      customers[i] = new Customer(UUID.nameUUIDFromBytes(
+          ("synthetic-customer-" + i).getBytes(StandardCharsets.UTF_8)).toString());
+      customerDistribution[i] = 1 / Math.pow(i + 1, settings.customerSkew());
+    }
+
+    transactionTypeDistribution = new double[TRANSACTION_TYPES.length];
+
+    for (int i = 0; i < TRANSACTION_TYPES.length; i++) {
+
+      transactionTypeDistribution[i] =
+          settings.transactionTypeMix().getOrDefault(TRANSACTION_TYPES[i], 0.0);
+    }
+
+    accumulate(customerDistribution);
+    accumulate(transactionTypeDistribution);
+  }
+
+  /**
+   * Generates the next transactions. If a target rate is configured, this operation blocks until
+   * the last of the returned transactions is due.
+   *
+   * @param numberOfTransactionsToRead How many transactions should be returned
+   * @return Transactions as list of {@link Transaction}, or empty list, if the configured number
+   * of transactions was already generated
+   */
+  @Override
+  public List<Transaction> readTransactions(int numberOfTransactionsToRead) {
+
+    int remaining = settings.numberOfTransactions() - numberOfTransactionsRead;
+
+    if (remaining <= 0) {
+
+      return Collections.emptyList();
+    }
+
+    numberOfTransactionsToRead = Math.min(numberOfTransactionsToRead, remaining);
+
+    List<Transaction> result = new ArrayList<>(numberOfTransactionsToRead);
+
+    for (int i = 0; i < numberOfTransactionsToRead; i++) {
+
+      result.add(new Transaction(++numberOfTransactionsRead,
+          customers[pick(customerDistribution)],
+          nextAmount(),
+          TRANSACTION_TYPES[pick(transactionTypeDistribution)]));
+    }
+
+    waitUntilDue();
+
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Skips the given number of transactions. They are still drawn from the random generator, but
+   * not built, so that the ones read afterwards are exactly the same as if nothing was skipped.
+   *
+   * @param numberOfTransactionsToSkip How many transactions should be skipped
+   */
+  @Override
+  public void skipTransactions(int numberOfTransactionsToSkip) {
+
+    int numberOfTransactionsToDraw = Math.min(numberOfTransactionsToSkip,
+        settings.numberOfTransactions() - numberOfTransactionsRead);
+
+    for (int i = 0; i < numberOfTransactionsToDraw; i++) {
+
+      pick(customerDistribution);
+      nextAmount();
+      pick(transactionTypeDistribution);
+    }
+
+    numberOfTransactionsRead += Math.max(0, numberOfTransactionsToDraw);
+    numberOfTransactionsSkipped += Math.max(0, numberOfTransactionsToDraw);
+  }
+
+  /**
+   * @return All customers that transactions may be generated for, from the most frequent one to
+   * the least frequent one
+   */
+  public List<Customer> getCustomers() {
+
+    return List.of(customers);
+  }
+
+  private int pick(double[] distribution) {
+
+    int index = Arrays.binarySearch(distribution, random.nextDouble());
+
+    return Math.min(index < 0 ? -index - 1 : index, distribution.length - 1);
+  }
+
+  private double nextAmount() {
+
+    double amount = settings.amountMedian()
+        * Math.exp(settings.amountSpread() * random.nextGaussian());
+
+    return Math.max(0.01, Math.round(amount * 100) / 100.0);
+  }
+
+  private void waitUntilDue() {
+
+    if (settings.transactionsPerSecond() <= 0) {
+
+      return;
+    }
+
+    if (startTime < 0) {
+
+      startTime = System.nanoTime();
+    }
+
+    long dueTime = startTime + (long) ((numberOfTransactionsRead - numberOfTransactionsSkipped)
+        * 1_000_000_000L / settings.transactionsPerSecond());
+    long waitTime;
+
+    while ((waitTime = dueTime - System.nanoTime()) > 0) {
+
+      LockSupport.parkNanos(waitTime);
+    }
+  }
+
+  private static void accumulate(double[] weights) {
+
+    double total = 0;
+
+    for (int i = 0; i < weights.length; i++) {
+
+      total += weights[i];
+      weights[i] = total;
+    }
+
+    if (total <= 0) {
+
+      throw new IllegalArgumentException("Weights must add up to a positive number");
+    }
+
+    for (int i = 0; i < weights.length; i++) {
+
+      weights[i] /= total;
+    }
+  }
+
+  /**
+   * How transactions are generated.
+   *
+   * @param numberOfTransactions Total number of transactions to be generated
+   * @param numberOfCustomers Number of distinct customers
+   * @param customerSkew Exponent of the Zipfian distribution of customers: 0 means every customer
+   * is equally likely, while bigger values concentrate transactions in fewer customers
+   * @param transactionTypeMix Relative weight of each {@link TransactionType}; missing types are
+   * never generated
+   * @param transactionsPerSecond Target rate, or 0 to generate as fast as possible
+   * @param amountMedian Median of the amounts
+   * @param amountSpread Standard deviation of the logarithm of the amounts
+   * @param seed Seed of the random generator
+   */
+  public record Settings(int numberOfTransactions, int numberOfCustomers, double customerSkew,
+                         Map<TransactionType, Double> transactionTypeMix,
+                         double transactionsPerSecond, double amountMedian, double amountSpread,
+                         long seed) {
+
+    public Settings {
+
+      // written so that NaN, which fails every comparison, is rejected as well
+      if (numberOfTransactions < 0 || numberOfCustomers < 1
+          || !isFiniteFrom(customerSkew, 0) || !isFiniteFrom(transactionsPerSecond, 0)
+          || !isFiniteFrom(amountMedian, Double.MIN_VALUE) || !isFiniteFrom(amountSpread, 0)) {
+
+        throw new IllegalArgumentException("Invalid settings for synthetic transactions");
+      }
+
+      transactionTypeMix = Map.copyOf(transactionTypeMix);
+
+      // otherwise, the cumulative distribution is not monotonic, and picking from it is undefined
+      transactionTypeMix.forEach((transactionType, weight) -> {
+
+        if (!isFiniteFrom(weight, 0)) {
+
+          throw new IllegalArgumentException(
+              "Invalid weight of transaction type " + transactionType + ": " + weight);
+        }
+      });
+    }
+
+    private static boolean isFiniteFrom(double value, double minimum) {
+
+      return value >= minimum && Double.isFinite(value);
+    }
+
+    /**
+     * Reads the settings from the given configuration, e.g., section
+     * "sample.transactions.synthetic" of the Actor System configuration.
+     *
+     * @param config Configuration with the settings
+     * @return {@link Settings}
+     */
+    public static Settings fromConfig(Config config) {
+
+      Map<TransactionType, Double> transactionTypeMix = new EnumMap<>(TransactionType.class);
+      Config mix = config.getConfig("transaction-type-mix");
+
+      for (TransactionType transactionType : TRANSACTION_TYPES) {
+
+        if (mix.hasPath(transactionType.name())) {
+
+          transactionTypeMix.put(transactionType, mix.getDouble(transactionType.name()));
+        }
+      }
+
+      return new Settings(
+          config.getInt("number-of-transactions"),
+          config.getInt("number-of-customers"),
+          config.getDouble("customer-skew"),
+          transactionTypeMix,
+          config.getDouble("transactions-per-second"),
+          config.getDouble("amount-median"),
+          config.getDouble("amount-spread"),
+          config.getLong("seed"));
+    }
+  }
+}
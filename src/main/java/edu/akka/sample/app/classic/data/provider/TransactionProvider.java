@@ -37,7 +37,7 @@ import java.util.stream.IntStream;
  * In a normal application this data would come from a database or through a message system,
  * but for the purposes of this exercise, this singleton suffices.
  */
-public class TransactionProvider {
+public class TransactionProvider implements TransactionSource {
 
   private static final TransactionProvider instance = new TransactionProvider();
 
@@ -89,6 +89,7 @@ public class TransactionProvider {
    * @return Transactions as list of {@link Transaction}, or empty list, if there is
    * nothing more to read
    */
+  @Override
   public List<Transaction> readTransactions(int numberOfTransactionsToRead) {
 
     if (numberOfTransactionsRead >= transactions.size()) {
@@ -111,6 +112,13 @@ public class TransactionProvider {
     return result;
   }
 
+  @Override
+  public void skipTransactions(int numberOfTransactionsToSkip) {
+
+    numberOfTransactionsRead = Math.min(transactions.size(),
+        numberOfTransactionsRead + numberOfTransactionsToSkip);
+  }
+
   /**
    * @return Total number of available transactions
    */
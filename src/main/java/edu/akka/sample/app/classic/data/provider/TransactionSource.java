@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.provider;
+
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import java.util.List;
+
+/**
+ * Source of transaction data for the main thread.
+ */
+public interface TransactionSource {
+
+  /**
+   * Reads transactions according to the given number of transactions to be read.
+   * <p>
+   * Every time this operation is called, the next transactions are returned, until there is
+   * nothing more to read, in which case an empty list is returned.
+   *
+   * @param numberOfTransactionsToRead How many transactions should be returned, at most
+   * @return Transactions as list of {@link Transaction}, or empty list, if there is
+   * nothing more to read
+   */
+  List<Transaction> readTransactions(int numberOfTransactionsToRead);
+
+  /**
+   * Skips the given number of transactions, as if they had been read, e.g., to resume reading
+   * from a checkpoint.
+   *
+   * @param numberOfTransactionsToSkip How many transactions should be skipped
+   */
+  void skipTransactions(int numberOfTransactionsToSkip);
+}
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.result;
+
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionResult;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads back the files written by {@link ColumnarResultWriter}.
+ */
+public class ColumnarResultReader {
+
+  private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+  private ColumnarResultReader() {
+
+    // nothing to add here: only static operations
+  }
+
+  /**
+   * Reads all results of all files in the given directory.
+   *
+   * @param directory Directory of the files
+   * @return Results, in the order they were written
+   * @throws IOException If the files cannot be read or are not valid
+   */
+  public static List<TransactionResult> readDirectory(Path directory) throws IOException {
+
+    List<TransactionResult> results = new ArrayList<>();
+
+    for (Path file : ColumnarResultWriter.listFiles(directory)) {
+
+      results.addAll(read(file));
+    }
+
+    return results;
+  }
+
+  /**
+   * Reads all results of the given file.
+   *
+   * @param file File with results
+   * @return Results, in the order they were written
+   * @throws IOException If the file cannot be read or is not valid
+   */
+  public static List<TransactionResult> read(Path file) throws IOException {
+
+    List<TransactionResult> results = new ArrayList<>();
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+      ByteBuffer content = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+      while (content.hasRemaining()) {
+
+        readBlock(file, content, results);
+      }
+    }
+
+    return results;
+  }
+
+  private static void readBlock(Path file, ByteBuffer content, List<TransactionResult> results)
+      throws IOException {
+
+    if (content.remaining() < ColumnarResultWriter.HEADER_SIZE
+        || content.getInt() != ColumnarResultWriter.MAGIC_NUMBER) {
+
+      throw new IOException("Invalid block in " + file + " at position " + content.position());
+    }
+
+    int numberOfRows = content.getInt();
+    Customer[] customers = new Customer[content.getInt()];
+
+    for (int i = 0; i < customers.length; i++) {
+
+      byte[] customerId = new byte[content.getInt()];
+      content.get(customerId);
+      customers[i] = new Customer(new String(customerId, StandardCharsets.UTF_8));
+    }
+
+    // every column starts where the previous one ends
+    int idsPosition = content.position();
+    int customerIndexesPosition = idsPosition + numberOfRows * Integer.BYTES;
+    int transactionTypesPosition = customerIndexesPosition + numberOfRows * Integer.BYTES;
+    int amountsPosition = transactionTypesPosition + numberOfRows;
+    int balancesPosition = amountsPosition + numberOfRows * Double.BYTES;
+
+    for (int row = 0; row < numberOfRows; row++) {
+
+      Transaction transaction = new Transaction(
+          content.getInt(idsPosition + row * Integer.BYTES),
+          customers[content.getInt(customerIndexesPosition + row * Integer.BYTES)],
+          content.getDouble(amountsPosition + row * Double.BYTES),
+          TRANSACTION_TYPES[content.get(transactionTypesPosition + row)]);
+
+      results.add(new TransactionResult(transaction,
+          content.getDouble(balancesPosition + row * Double.BYTES)));
+    }
+
+    content.position(balancesPosition + numberOfRows * Double.BYTES);
+  }
+}
@@ -0,0 +1,358 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.result;
+
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.TransactionResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes results of processed transactions to local files in a simple columnar format.
+ * <p>
+ * Results are buffered in off-heap buffers, one per column, and written as one block with a
+ * single gathering write once the block is full, or when flushed. Every block is laid out as:
+ * <ol>
+ *   <li>header: magic number, number of rows and number of customers in the dictionary;</li>
+ *   <li>dictionary: identification of every customer of the block, as length (int) and UTF-8
+ *   bytes;</li>
+ *   <li>columns: transaction ids (int), customer indexes in the dictionary (int), transaction type
+ *   ordinals (byte), amounts (double) and balances (double).</li>
+ * </ol>
+ * Files are rotated by size: a block that would make the current file bigger than the maximum
+ * size goes to a new file. Files are named {@code results-<sequence>.txc} and never overwritten;
+ * they are ordered by the number of their sequence, and other files in the directory are ignored.
+ * <p>
+ * See {@link ColumnarResultReader} for reading the files back.
+ */
+public class ColumnarResultWriter implements Closeable {
+
+  static final int MAGIC_NUMBER = 0x54584332;
+  static final int HEADER_SIZE = 3 * Integer.BYTES;
+  static final int ROW_SIZE =
+      Integer.BYTES + Integer.BYTES + Byte.BYTES + Double.BYTES + Double.BYTES;
+
+  private static final String FILE_PREFIX = "results-";
+  private static final String FILE_SUFFIX = ".txc";
+
+  private final Path directory;
+  private final int rowsPerBlock;
+  private final long maxFileSize;
+
+  private final ByteBuffer header = ByteBuffer.allocateDirect(HEADER_SIZE);
+  private final ByteBuffer ids;
+  private final ByteBuffer customerIndexes;
+  private final ByteBuffer transactionTypes;
+  private final ByteBuffer amounts;
+  private final ByteBuffer balances;
+  private ByteBuffer dictionary = ByteBuffer.allocateDirect(64 * 1024);
+
+  // customers of the block being buffered, along with their index in the dictionary
+  private final Map<Customer, Integer> customers = new HashMap<>();
+
+  private int numberOfRows = 0;
+  private int fileSequence;
+  private FileChannel file;
+
+  /**
+   * @param directory Directory of the files, created if needed
+   * @param rowsPerBlock Number of results buffered before they are written
+   * @param maxFileSize Size from which files are rotated
+   * @throws IOException If the directory cannot be created or listed
+   */
+  public ColumnarResultWriter(Path directory, int rowsPerBlock, long maxFileSize)
+      throws IOException {
+
+    if (rowsPerBlock < 1) {
+
+      throw new IllegalArgumentException("At least one row per block is needed");
+    }
+
+    this.directory = Files.createDirectories(directory);
+    this.rowsPerBlock = rowsPerBlock;
+    this.maxFileSize = maxFileSize;
+
+    ids = ByteBuffer.allocateDirect(rowsPerBlock * Integer.BYTES);
+    customerIndexes = ByteBuffer.allocateDirect(rowsPerBlock * Integer.BYTES);
+    transactionTypes = ByteBuffer.allocateDirect(rowsPerBlock);
+    amounts = ByteBuffer.allocateDirect(rowsPerBlock * Double.BYTES);
+    balances = ByteBuffer.allocateDirect(rowsPerBlock * Double.BYTES);
+
+    fileSequence = findLastFileSequence();
+  }
+
+  /**
+   * Buffers the given result, and writes the block, if it is full.
+   *
+   * @param result Result of a processed transaction
+   * @throws IOException If the block cannot be written
+   */
+  public void append(TransactionResult result) throws IOException {
+
+    ids.putInt(result.transaction().id());
+    customerIndexes.putInt(getCustomerIndex(result.transaction().customer()));
+    transactionTypes.put((byte) result.transaction().transactionType().ordinal());
+    amounts.putDouble(result.transaction().amount());
+    balances.putDouble(result.balance());
+
+    if (++numberOfRows == rowsPerBlock) {
+
+      flush();
+    }
+  }
+
+  /**
+   * Writes whatever is buffered as one block. If the block cannot be written, it is dropped, and
+   * whatever part of it made it to the file is cut off, so that the writer can go on with the
+   * next block and the file can still be read back.
+   *
+   * @throws IOException If the block cannot be written
+   */
+  public void flush() throws IOException {
+
+    if (numberOfRows == 0) {
+
+      return;
+    }
+
+    dictionary.flip();
+    header.clear();
+    header.putInt(MAGIC_NUMBER).putInt(numberOfRows).putInt(customers.size()).flip();
+
+    ByteBuffer[] block = {header, dictionary, ids.flip(), customerIndexes.flip(),
+        transactionTypes.flip(), amounts.flip(), balances.flip()};
+    long blockSize = HEADER_SIZE + dictionary.remaining() + (long) numberOfRows * ROW_SIZE;
+
+    try {
+
+      FileChannel channel = getFile(blockSize);
+      long blockStart = channel.size();
+
+      try {
+
+        while (block[block.length - 1].hasRemaining()) {
+
+          channel.write(block);
+        }
+      }
+      catch (IOException e) {
+
+        cutOff(channel, blockStart, e);
+        throw e;
+      }
+    }
+    finally {
+
+      for (ByteBuffer buffer : block) {
+
+        buffer.clear();
+      }
+
+      customers.clear();
+      numberOfRows = 0;
+    }
+  }
+
+  /**
+   * Syncs what was written to the current file to disk, so that it survives a crash. Files that
+   * were rotated are synced before they are closed.
+   *
+   * @throws IOException If the file cannot be synced
+   */
+  public void sync() throws IOException {
+
+    if (file != null) {
+
+      file.force(false);
+    }
+  }
+
+  /**
+   * Writes whatever is buffered and closes the current file.
+   *
+   * @throws IOException If the block cannot be written or the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+
+    flush();
+
+    if (file != null) {
+
+      file.close();
+      file = null;
+    }
+  }
+
+  /**
+   * @return Files written so far in the directory, in the order they were written
+   * @throws IOException If the directory cannot be listed
+   */
+  public List<Path> getFiles() throws IOException {
+
+    return listFiles(directory);
+  }
+
+  /**
+   * @param directory Directory of the files
+   * @return Files with results in the given directory, in the order they were written
+   * @throws IOException If the directory cannot be listed
+   */
+  public static List<Path> listFiles(Path directory) throws IOException {
+
+    try (Stream<Path> files = Files.list(directory)) {
+
+      return files
+          .filter(file -> getFileSequence(file) > 0)
+          .sorted(Comparator.comparingInt(ColumnarResultWriter::getFileSequence))
+          .toList();
+    }
+  }
+
+  /**
+   * @param file Any file in the directory of the files with results
+   * @return Sequence of the given file, or 0, if it is not a file with results, e.g.,
+   * "results-old.txc"
+   */
+  private static int getFileSequence(Path file) {
+
+    String fileName = file.getFileName().toString();
+
+    if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) {
+
+      return 0;
+    }
+
+    try {
+
+      return Math.max(0, Integer.parseInt(
+          fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length())));
+    }
+    catch (NumberFormatException e) {
+
+      return 0;
+    }
+  }
+
+  private int getCustomerIndex(Customer customer) {
+
+    Integer index = customers.get(customer);
+
+    if (index != null) {
+
+      return index;
+    }
+
+    byte[] customerId = customer.getCustomerId().getBytes(StandardCharsets.UTF_8);
+
+    int entrySize = Integer.BYTES + customerId.length;
+
+    if (dictionary.remaining() < entrySize) {
+
+      // rarely happens: the dictionary only grows for blocks with many distinct customers
+      ByteBuffer biggerDictionary = ByteBuffer.allocateDirect(
+          Math.max(dictionary.capacity() * 2, dictionary.position() + entrySize));
+      biggerDictionary.put(dictionary.flip());
+      dictionary = biggerDictionary;
+    }
+
+    dictionary.putInt(customerId.length).put(customerId);
+    customers.put(customer, customers.size());
+
+    return customers.size() - 1;
+  }
+
+  /**
+   * Cuts off the part of a block that was written before the write failed. If even that fails,
+   * the file is given up, and the next block goes to a new file.
+   *
+   * @param channel File to which the block was being written
+   * @param blockStart Size of the file before the block
+   * @param cause Why the block could not be written
+   */
+  private void cutOff(FileChannel channel, long blockStart, IOException cause) {
+
+    try {
+
+      channel.truncate(blockStart);
+    }
+    catch (IOException e) {
+
+      cause.addSuppressed(e);
+
+      try {
+
+        channel.close();
+      }
+      catch (IOException closeException) {
+
+        cause.addSuppressed(closeException);
+      }
+
+      file = null;
+    }
+  }
+
+  /**
+   * @param blockSize Size of the block to be written
+   * @return File to which the block is written, rotated if the current one would get too big
+   */
+  private FileChannel getFile(long blockSize) throws IOException {
+
+    if (file != null && file.size() > 0 && file.size() + blockSize > maxFileSize) {
+
+      file.force(false);
+      file.close();
+      file = null;
+    }
+
+    if (file == null) {
+
+      file = FileChannel.open(
+          directory.resolve(String.format("%s%05d%s", FILE_PREFIX, ++fileSequence, FILE_SUFFIX)),
+          StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    return file;
+  }
+
+  private int findLastFileSequence() throws IOException {
+
+    List<Path> files = listFiles(directory);
+
+    return files.isEmpty() ? 0 : getFileSequence(files.get(files.size() - 1));
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Mutable accumulator of count, sum, minimum, maximum and distribution of transaction amounts.
+ * <p>
+ * Amounts are recorded in cents into a fixed log-linear histogram, so that percentiles can be
+ * estimated without keeping every single value. Recording, merging and resetting do not allocate
+ * anything, which means one instance can be reused for as long as needed.
+ */
+public class StatisticsAccumulator {
+
+  // every power of two is split into this many linear sub-buckets, i.e., ~6% precision
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  // amounts of 2^MAX_MAGNITUDE cents or more all end up in the last bucket
+  private static final int MAX_MAGNITUDE = 40;
+  private static final int NUMBER_OF_BUCKETS =
+      (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+  private final long[] buckets = new long[NUMBER_OF_BUCKETS];
+
+  private long count;
+  private double sum;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Records the given amount.
+   *
+   * @param amount Amount of a transaction
+   */
+  public void record(double amount) {
+
+    count++;
+    sum += amount;
+    min = Math.min(min, amount);
+    max = Math.max(max, amount);
+    buckets[bucketIndex(Math.round(amount * 100))]++;
+  }
+
+  /**
+   * Adds everything recorded by the given accumulator to this one.
+   *
+   * @param other Accumulator to be merged into this one
+   */
+  public void merge(StatisticsAccumulator other) {
+
+    if (other.count == 0) {
+
+      return;
+    }
+
+    count += other.count;
+    sum += other.sum;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+
+    for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+
+      buckets[i] += other.buckets[i];
+    }
+  }
+
+  /**
+   * Clears everything that was recorded so far.
+   */
+  public void reset() {
+
+    if (count == 0) {
+
+      return;
+    }
+
+    count = 0;
+    sum = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+    Arrays.fill(buckets, 0L);
+  }
+
+  /**
+   * @return True, if nothing was recorded
+   */
+  public boolean isEmpty() {
+
+    return count == 0;
+  }
+
+  /**
+   * @return Number of recorded amounts
+   */
+  public long getCount() {
+
+    return count;
+  }
+
+  /**
+   * @return Sum of recorded amounts
+   */
+  public double getSum() {
+
+    return sum;
+  }
+
+  /**
+   * @return Smallest recorded amount, or NaN, if nothing was recorded
+   */
+  public double getMin() {
+
+    return count == 0 ? Double.NaN : min;
+  }
+
+  /**
+   * @return Biggest recorded amount, or NaN, if nothing was recorded
+   */
+  public double getMax() {
+
+    return count == 0 ? Double.NaN : max;
+  }
+
+  /**
+   * Estimates the given percentile of the recorded amounts. The estimation is the middle of the
+   * histogram bucket in which the percentile falls, bounded by the minimum and maximum amounts.
+   *
+   * @param percentile Percentile between 0 and 100
+   * @return Estimated amount, or NaN, if nothing was recorded
+   */
+  public double getPercentile(double percentile) {
+
+    if (count == 0) {
+
+      return Double.NaN;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+
+    for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+
+      seen += buckets[i];
+
+      if (seen >= rank) {
+
+        double estimation = bucketMiddleInCents(i) / 100;
+
+        return Math.min(max, Math.max(min, estimation));
+      }
+    }
+
+    return max;
+  }
+
+  private static int bucketIndex(long cents) {
+
+    if (cents < SUB_BUCKET_COUNT) {
+
+      return (int) Math.max(0, cents);
+    }
+
+    int magnitude = 63 - Long.numberOfLeadingZeros(cents);
+
+    if (magnitude > MAX_MAGNITUDE) {
+
+      return NUMBER_OF_BUCKETS - 1;
+    }
+
+    int shift = magnitude - SUB_BUCKET_BITS;
+
+    return (shift + 1) * SUB_BUCKET_COUNT + (int) ((cents >>> shift) & (SUB_BUCKET_COUNT - 1));
+  }
+
+  private static double bucketMiddleInCents(int index) {
+
+    if (index < SUB_BUCKET_COUNT) {
+
+      return index;
+    }
+
+    int shift = index / SUB_BUCKET_COUNT - 1;
+    long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+
+    return lowest + ((1L << shift) - 1) / 2.0;
+  }
+}
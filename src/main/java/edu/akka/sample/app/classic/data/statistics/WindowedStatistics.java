@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.statistics;
+
+/**
+ * Statistics of a single key (a transaction type, a customer...) over a window that is split into
+ * panes of the same duration.
+ * <p>
+ * Amounts are always recorded into the current pane. The current pane alone is the tumbling
+ * window, while all panes together are the sliding window, which moves one pane at a time. Panes
+ * are created once and reset when reused, so moving the window does not allocate anything.
+ */
+public class WindowedStatistics {
+
+  private final StatisticsAccumulator[] panes;
+
+  // index of the pane that receives the amounts being recorded
+  private int currentPane = 0;
+
+  /**
+   * @param numberOfPanes Number of panes that make up the sliding window
+   */
+  public WindowedStatistics(int numberOfPanes) {
+
+    if (numberOfPanes < 1) {
+
+      throw new IllegalArgumentException("At least one pane is needed, but got " + numberOfPanes);
+    }
+
+    panes = new StatisticsAccumulator[numberOfPanes];
+
+    for (int i = 0; i < numberOfPanes; i++) {
+
+      panes[i] = new StatisticsAccumulator();
+    }
+  }
+
+  /**
+   * Records the given amount into the current pane.
+   *
+   * @param amount Amount of a transaction
+   */
+  public void record(double amount) {
+
+    panes[currentPane].record(amount);
+  }
+
+  /**
+   * @return Statistics of the tumbling window, i.e., of the current pane only
+   */
+  public StatisticsAccumulator tumbling() {
+
+    return panes[currentPane];
+  }
+
+  /**
+   * Merges all panes into the given accumulator, which is reset beforehand.
+   *
+   * @param target Accumulator that receives the statistics of the sliding window
+   * @return The given accumulator
+   */
+  public StatisticsAccumulator sliding(StatisticsAccumulator target) {
+
+    target.reset();
+
+    for (StatisticsAccumulator pane : panes) {
+
+      target.merge(pane);
+    }
+
+    return target;
+  }
+
+  /**
+   * Moves the window by one pane: the oldest pane is cleared and becomes the current one.
+   */
+  public void roll() {
+
+    currentPane = (currentPane + 1) % panes.length;
+    panes[currentPane].reset();
+  }
+
+  /**
+   * @return True, if nothing was recorded in any of the panes
+   */
+  public boolean isEmpty() {
+
+    for (StatisticsAccumulator pane : panes) {
+
+      if (!pane.isEmpty()) {
+
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import akka.Done;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+import com.typesafe.config.ConfigFactory;
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link StatisticsActor}.
+ */
+public class TestStatisticsActor {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TempDir
+  Path directory;
+
+  private ActorSystem actorSystem;
+
+  @BeforeEach
+  public void createActorSystem() {
+
+    actorSystem = ActorSystem.create("TestStatisticsActor");
+  }
+
+  @AfterEach
+  public void shutdownActorSystem() {
+
+    TestKit.shutdownActorSystem(actorSystem);
+  }
+
+  /**
+   * GIVEN Statistics Actor with a recorded transaction, in a pane that does not elapse
+   * WHEN flushing it and then stopping it, as when shutting down
+   * THEN the windows of the transaction are written exactly once
+   */
+  @Test
+  public void testFlushThenStopWritesWindowsOnce() throws IOException {
+
+    Path outputFile = directory.resolve("transaction-statistics.csv");
+    ActorRef statisticsActor = actorSystem.actorOf(
+        StatisticsActor.getStatisticsActor(Duration.ofMinutes(1), 5, outputFile));
+    TestKit probe = new TestKit(actorSystem);
+
+    probe.send(statisticsActor, new Transaction(1, new Customer("1"), 10.0,
+        TransactionType.RECEIPT));
+    probe.send(statisticsActor, new Flush());
+    probe.expectMsg(TIMEOUT, Done.getInstance());
+
+    probe.watch(statisticsActor);
+    actorSystem.stop(statisticsActor);
+    probe.expectTerminated(TIMEOUT, statisticsActor);
+
+    List<String> lines = Files.readAllLines(outputFile);
+
+    // header, then tumbling and sliding windows of both the type and the customer
+    assertEquals(5, lines.size(), String.join("\n", lines));
+    assertEquals(2, lines.stream().filter(line -> line.contains(",sliding,")).count());
+  }
+
+  /**
+   * GIVEN Statistics Actors that start lazily, and that do not
+   * WHEN they are started, but receive no transaction
+   * THEN only the one that does not start lazily opens its file
+   */
+  @Test
+  public void testLazyActorsSetting() {
+
+    Path lazyOutputFile = directory.resolve("lazy-statistics.csv");
+    Path eagerOutputFile = directory.resolve("eager-statistics.csv");
+    ActorSystem eagerActorSystem = ActorSystem.create("TestStatisticsActorEager",
+        ConfigFactory.parseString("sample.startup.lazy-actors = off")
+            .withFallback(ConfigFactory.load()));
+
+    try {
+
+      TestKit probe = new TestKit(actorSystem);
+      probe.send(actorSystem.actorOf(
+          StatisticsActor.getStatisticsActor(Duration.ofMinutes(1), 5, lazyOutputFile)),
+          new Flush());
+      probe.expectMsg(TIMEOUT, Done.getInstance());
+
+      TestKit eagerProbe = new TestKit(eagerActorSystem);
+      eagerProbe.send(eagerActorSystem.actorOf(
+          StatisticsActor.getStatisticsActor(Duration.ofMinutes(1), 5, eagerOutputFile)),
+          new Flush());
+      eagerProbe.expectMsg(TIMEOUT, Done.getInstance());
+
+      assertFalse(Files.exists(lazyOutputFile));
+      assertTrue(Files.exists(eagerOutputFile));
+    }
+    finally {
+
+      TestKit.shutdownActorSystem(eagerActorSystem);
+    }
+  }
+}
@@ -0,0 +1,386 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorIdentity;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Identify;
+import akka.actor.Props;
+import akka.actor.Status;
+import akka.testkit.javadsl.TestKit;
+import edu.akka.sample.app.classic.actor.CustomerActor.ProcessTransaction;
+import edu.akka.sample.app.classic.actor.CustomerActor.TransactionProcessed;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drain;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drained;
+import edu.akka.sample.app.classic.actor.TransactionsActor.HotCustomerSettings;
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionResult;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link TransactionsActor} and its child {@link CustomerActor}s.
+ */
+public class TestTransactionsActor {
+
+  private static final Customer CUSTOMER = new Customer("hot");
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final HotCustomerSettings NEVER_HOT =
+      new HotCustomerSettings(Integer.MAX_VALUE, Double.MAX_VALUE, 0, Duration.ofMinutes(1));
+
+  private ActorSystem actorSystem;
+  private TestKit statistics;
+  private TestKit results;
+  private TestKit sender;
+  private TestKit drainer;
+
+  private int nextTransactionId = 1;
+
+  @BeforeEach
+  public void createActorSystem() {
+
+    actorSystem = ActorSystem.create("TestTransactionsActor");
+    statistics = new TestKit(actorSystem);
+    results = new TestKit(actorSystem);
+    sender = new TestKit(actorSystem);
+    drainer = new TestKit(actorSystem);
+  }
+
+  @AfterEach
+  public void shutdownActorSystem() {
+
+    TestKit.shutdownActorSystem(actorSystem);
+  }
+
+  /**
+   * GIVEN customer that becomes hot as soon as a few of its transactions wait
+   * WHEN sending many transactions of all types at once
+   * THEN some of the commutative transactions are processed by workers
+   * AND the balance of every transaction processed by the Customer Actor is exactly the one of
+   * processing all transactions one after the other
+   */
+  @Test
+  public void testHotByBacklogKeepsSequentialBalance() {
+
+    ActorRef transactionsActor = createTransactionsActor(
+        new HotCustomerSettings(10, Double.MAX_VALUE, 4, Duration.ofMinutes(1)));
+
+    List<Transaction> transactions = createTransactions(2000);
+
+    sender.send(transactionsActor, transactions);
+    sender.expectMsg(TIMEOUT, new Status.Success("OK"));
+
+    double[] expectedBalances = getExpectedBalances(transactions);
+    int processedByWorkers = 0;
+
+    for (Object message : results.receiveN(transactions.size(), TIMEOUT)) {
+
+      TransactionResult result = (TransactionResult) message;
+
+      if (Double.isNaN(result.balance())) {
+
+        assertTrue(result.transaction().transactionType().isCommutative());
+        processedByWorkers++;
+        continue;
+      }
+
+      assertEquals(expectedBalances[result.transaction().id()], result.balance(),
+          "Balance after transaction " + result.transaction().id());
+    }
+
+    assertTrue(processedByWorkers > 0);
+  }
+
+  /**
+   * GIVEN customer that becomes hot from a certain rate on
+   * WHEN sending transactions at a higher rate
+   * THEN the customer becomes hot, i.e., workers process some of its transactions
+   * AND once the rate goes down, the Customer Actor processes all of them again
+   */
+  @Test
+  public void testHotByRateAndCoolDown() {
+
+    ActorRef transactionsActor = createTransactionsActor(
+        new HotCustomerSettings(Integer.MAX_VALUE, 100, 2, Duration.ofMillis(200)));
+
+    // 20 transactions every 100 ms, i.e., 200 transactions per second
+    sender.awaitAssert(TIMEOUT, Duration.ofMillis(100), () -> {
+
+      assertTrue(sendAndCountProcessedByWorkers(transactionsActor, 20) > 0);
+      return null;
+    });
+
+    // 1 transaction every 100 ms, i.e., 10 transactions per second
+    sender.awaitAssert(TIMEOUT, Duration.ofMillis(100), () -> {
+
+      assertEquals(0, sendAndCountProcessedByWorkers(transactionsActor, 1));
+      return null;
+    });
+  }
+
+  /**
+   * GIVEN customer that is hot while many of its transactions wait
+   * WHEN sending several batches one after the other
+   * THEN the last balance is the one of processing all transactions one after the other, i.e.,
+   * the changes made by the workers are reconciled
+   * AND the workers remain children of the Transactions Actor
+   */
+  @Test
+  public void testBalanceReconciliation() {
+
+    ActorRef transactionsActor = createTransactionsActor(
+        new HotCustomerSettings(10, Double.MAX_VALUE, 2, Duration.ofMinutes(1)));
+
+    List<Transaction> allTransactions = new ArrayList<>();
+
+    for (int i = 0; i < 5; i++) {
+
+      List<Transaction> transactions = createTransactions(500);
+      allTransactions.addAll(transactions);
+
+      sender.send(transactionsActor, transactions);
+      sender.expectMsg(TIMEOUT, new Status.Success("OK"));
+    }
+
+    // a last payment is always processed by the Customer Actor, after everything else
+    List<Transaction> lastPayment = List.of(new Transaction(nextTransactionId++, CUSTOMER, 1.0,
+        TransactionType.PAY));
+    allTransactions.addAll(lastPayment);
+
+    sender.send(transactionsActor, lastPayment);
+    sender.expectMsg(TIMEOUT, new Status.Success("OK"));
+
+    double[] expectedBalances = getExpectedBalances(allTransactions);
+    TransactionResult lastResult = (TransactionResult) results.receiveN(allTransactions.size(),
+        TIMEOUT).get(allTransactions.size() - 1);
+
+    assertEquals(lastPayment.get(0), lastResult.transaction());
+    assertEquals(expectedBalances[expectedBalances.length - 1], lastResult.balance());
+
+    actorSystem.actorSelection(
+            transactionsActor.path().toStringWithoutAddress() + "/customer-hot-worker-*")
+        .tell(new Identify(1), sender.getRef());
+
+    sender.receiveN(2, TIMEOUT).forEach(message ->
+        assertTrue(((ActorIdentity) message).getActorRef().isPresent()));
+  }
+
+  /**
+   * GIVEN Transactions Actor without pending transactions
+   * WHEN asking it to drain
+   * THEN it answers right away that nothing was completed nor abandoned
+   * AND transactions sent afterwards are refused
+   */
+  @Test
+  public void testDrainWithoutPendingTransactions() {
+
+    ActorRef transactionsActor = createTransactionsActor(NEVER_HOT);
+
+    drainer.send(transactionsActor, new Drain(TIMEOUT));
+    drainer.expectMsg(TIMEOUT, new Drained(0, 0));
+
+    sender.send(transactionsActor, createTransactions(1));
+    assertTrue(sender.expectMsgClass(TIMEOUT, Status.Failure.class).cause()
+        instanceof IllegalStateException);
+  }
+
+  /**
+   * GIVEN Transactions Actor with pending transactions
+   * WHEN asking it to drain
+   * THEN it answers once the pending transactions are processed, within the deadline
+   */
+  @Test
+  public void testDrainCompletesWhenPendingTransactionsAreProcessed() {
+
+    ActorRef transactionsActor = createTransactionsActor(NEVER_HOT);
+
+    sender.send(transactionsActor, createTransactions(100));
+    drainer.send(transactionsActor, new Drain(TIMEOUT));
+
+    sender.expectMsg(TIMEOUT, new Status.Success("OK"));
+    drainer.expectMsg(TIMEOUT, new Drained(100, 0));
+  }
+
+  /**
+   * GIVEN Transactions Actor with pending transactions that cannot be processed in time
+   * WHEN asking it to drain
+   * THEN once the deadline is over, the pending transactions are reported as abandoned
+   * AND the sender of the batch is informed with a failure, instead of waiting forever
+   */
+  @Test
+  public void testDrainDeadlineAbandonsPendingTransactions() {
+
+    ActorRef transactionsActor = actorSystem.actorOf(TransactionsActor.getTransactionsActor(
+        statistics.getRef(), results.getRef(), NEVER_HOT,
+        GatedCustomerActor.getGatedCustomerActor(new AtomicBoolean(false))));
+
+    sender.send(transactionsActor, createTransactions(10));
+    drainer.send(transactionsActor, new Drain(Duration.ofMillis(100)));
+
+    drainer.expectMsg(TIMEOUT, new Drained(0, 10));
+
+    Throwable cause = sender.expectMsgClass(TIMEOUT, Status.Failure.class).cause();
+    assertTrue(cause instanceof IllegalStateException);
+    assertEquals("10 transactions abandoned while draining", cause.getMessage());
+  }
+
+  /**
+   * GIVEN settings of hot customers with a negative number of workers, a rate interval that is
+   * not positive, or a mailbox depth that is not positive
+   * WHEN creating them
+   * THEN they are rejected, instead of failing once customers get hot
+   */
+  @Test
+  public void testInvalidHotCustomerSettings() {
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new HotCustomerSettings(10, 100, -1, Duration.ofSeconds(1)));
+    assertThrows(IllegalArgumentException.class,
+        () -> new HotCustomerSettings(10, 100, 4, Duration.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> new HotCustomerSettings(10, 100, 4, Duration.ofSeconds(-1)));
+    assertThrows(IllegalArgumentException.class,
+        () -> new HotCustomerSettings(0, 100, 4, Duration.ofSeconds(1)));
+    assertThrows(IllegalArgumentException.class,
+        () -> new HotCustomerSettings(10, Double.NaN, 4, Duration.ofSeconds(1)));
+  }
+
+  private int sendAndCountProcessedByWorkers(ActorRef transactionsActor,
+      int numberOfTransactions) {
+
+    List<Transaction> transactions = new ArrayList<>();
+
+    for (int i = 0; i < numberOfTransactions; i++) {
+
+      transactions.add(new Transaction(nextTransactionId++, CUSTOMER, 1.0,
+          TransactionType.RECEIPT));
+    }
+
+    sender.send(transactionsActor, transactions);
+    sender.expectMsg(TIMEOUT, new Status.Success("OK"));
+
+    return (int) results.receiveN(numberOfTransactions, TIMEOUT).stream()
+        .filter(message -> Double.isNaN(((TransactionResult) message).balance()))
+        .count();
+  }
+
+  private ActorRef createTransactionsActor(HotCustomerSettings hotCustomerSettings) {
+
+    return actorSystem.actorOf(TransactionsActor.getTransactionsActor(
+        statistics.getRef(), results.getRef(), hotCustomerSettings));
+  }
+
+  /**
+   * Creates transactions of all types, so that credits and payments alternate, with whole
+   * amounts, so that the balances are exact whatever the order in which they are summed.
+   */
+  private List<Transaction> createTransactions(int numberOfTransactions) {
+
+    TransactionType[] transactionTypes = {TransactionType.RECEIPT, TransactionType.REIMBURSE,
+        TransactionType.PAY};
+    List<Transaction> transactions = new ArrayList<>();
+
+    for (int i = 0; i < numberOfTransactions; i++) {
+
+      transactions.add(new Transaction(nextTransactionId, CUSTOMER,
+          (double) (nextTransactionId % 10 + 1), transactionTypes[i % transactionTypes.length]));
+      nextTransactionId++;
+    }
+
+    return transactions;
+  }
+
+  /**
+   * @return Balance right after each transaction, by id, when processed one after the other
+   */
+  private static double[] getExpectedBalances(List<Transaction> transactions) {
+
+    double[] balances = new double[transactions.get(transactions.size() - 1).id() + 1];
+    double balance = 0;
+
+    for (Transaction transaction : transactions) {
+
+      balance += transaction.transactionType().getBalanceChange(transaction.amount());
+      balances[transaction.id()] = balance;
+    }
+
+    return balances;
+  }
+
+  /**
+   * Stands in for the Customer Actors: it acknowledges every transaction right away while the
+   * given gate is open, and holds it forever otherwise, as if processing it took too long.
+   */
+  static class GatedCustomerActor extends AbstractActor {
+
+    private final AtomicBoolean isOpen;
+
+    GatedCustomerActor(AtomicBoolean isOpen) {
+
+      this.isOpen = isOpen;
+    }
+
+    /**
+     * @param isOpen Gate that lets transactions be acknowledged, while it is set
+     * @return {@link Props} to create the stand-in for a Customer Actor
+     */
+    static Props getGatedCustomerActor(AtomicBoolean isOpen) {
+
+      return Props.create(GatedCustomerActor.class, () -> new GatedCustomerActor(isOpen));
+    }
+
+    @Override
+    public Receive createReceive() {
+
+      return receiveBuilder()
+          .match(
+              ProcessTransaction.class,
+              this::processTransaction)
+          .build();
+    }
+
+    private void processTransaction(ProcessTransaction processTransaction) {
+
+      if (isOpen.get()) {
+
+        getContext().getParent().tell(new TransactionProcessed(processTransaction.batchId(),
+            processTransaction.transaction()), getSelf());
+      }
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+import edu.akka.sample.app.classic.actor.TestTransactionsActor.GatedCustomerActor;
+import edu.akka.sample.app.classic.actor.TransactionsActor.BatchProcessed;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drain;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drained;
+import edu.akka.sample.app.classic.actor.TransactionsActor.HotCustomerSettings;
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link TransactionsClient}.
+ */
+public class TestTransactionsClient {
+
+  private static final Customer[] CUSTOMERS =
+      {Customer.CUSTOMER_ID_1, Customer.CUSTOMER_ID_2, Customer.CUSTOMER_ID_3};
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final HotCustomerSettings NEVER_HOT =
+      new HotCustomerSettings(Integer.MAX_VALUE, Double.MAX_VALUE, 0, Duration.ofMinutes(1));
+
+  private ActorSystem actorSystem;
+  private ActorRef transactionsActor;
+  private TransactionsClient transactionsClient;
+
+  private int nextTransactionId = 1;
+
+  @BeforeEach
+  public void createActorSystem() {
+
+    actorSystem = ActorSystem.create("TestTransactionsClient");
+    transactionsActor = actorSystem.actorOf(TransactionsActor.getTransactionsActor(
+        new TestKit(actorSystem).getRef(), new TestKit(actorSystem).getRef(), NEVER_HOT));
+    transactionsClient = new TransactionsClient(transactionsActor, actorSystem.dispatcher());
+  }
+
+  @AfterEach
+  public void shutdownActorSystem() {
+
+    TestKit.shutdownActorSystem(actorSystem);
+  }
+
+  /**
+   * GIVEN client
+   * WHEN submitting several batches without waiting for any of them
+   * THEN every batch completes with its own number of transactions
+   */
+  @Test
+  public void testSeveralBatchesInFlight() throws Exception {
+
+    List<CompletableFuture<BatchProcessed>> submittedBatches = new ArrayList<>();
+
+    for (int size = 1; size <= 10; size++) {
+
+      submittedBatches.add(transactionsClient.submit(createTransactions(size * 10)));
+    }
+
+    for (int i = 0; i < submittedBatches.size(); i++) {
+
+      assertEquals(new BatchProcessed((i + 1) * 10), get(submittedBatches.get(i)));
+    }
+  }
+
+  /**
+   * GIVEN client
+   * WHEN submitting an empty batch
+   * THEN it completes right away, without any transaction
+   */
+  @Test
+  public void testEmptyBatch() throws Exception {
+
+    assertEquals(new BatchProcessed(0), get(transactionsClient.submit(List.of())));
+  }
+
+  /**
+   * GIVEN Transactions Actor that is draining
+   * WHEN submitting a batch
+   * THEN the batch fails, since it is refused
+   */
+  @Test
+  public void testRefusedWhileDraining() {
+
+    TestKit drainer = new TestKit(actorSystem);
+    drainer.send(transactionsActor, new Drain(TIMEOUT));
+    drainer.expectMsg(TIMEOUT, new Drained(0, 0));
+
+    assertFailsWith("Transactions are not accepted while draining",
+        transactionsClient.submit(createTransactions(1)));
+  }
+
+  /**
+   * GIVEN one batch that was processed and two that cannot be processed in time
+   * WHEN draining
+   * THEN once the deadline is over, each pending batch fails with its own abandoned transactions
+   * AND only the pending transactions are reported as abandoned
+   */
+  @Test
+  public void testPartialAbandonAtDeadline() throws Exception {
+
+    AtomicBoolean isCustomerOpen = new AtomicBoolean(true);
+    ActorRef gatedTransactionsActor = actorSystem.actorOf(TransactionsActor.getTransactionsActor(
+        new TestKit(actorSystem).getRef(), new TestKit(actorSystem).getRef(), NEVER_HOT,
+        GatedCustomerActor.getGatedCustomerActor(isCustomerOpen)));
+    TransactionsClient gatedTransactionsClient =
+        new TransactionsClient(gatedTransactionsActor, actorSystem.dispatcher());
+
+    assertEquals(new BatchProcessed(5),
+        get(gatedTransactionsClient.submit(createTransactions(5))));
+
+    isCustomerOpen.set(false);
+
+    CompletableFuture<BatchProcessed> second =
+        gatedTransactionsClient.submit(createTransactions(3));
+    CompletableFuture<BatchProcessed> third = gatedTransactionsClient.submit(createTransactions(4));
+
+    TestKit drainer = new TestKit(actorSystem);
+    drainer.send(gatedTransactionsActor, new Drain(Duration.ofMillis(100)));
+    drainer.expectMsg(TIMEOUT, new Drained(5, 7));
+
+    assertFailsWith("3 transactions abandoned while draining", second);
+    assertFailsWith("4 transactions abandoned while draining", third);
+  }
+
+  private static BatchProcessed get(CompletableFuture<BatchProcessed> batch) throws Exception {
+
+    return batch.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+  }
+
+  private static void assertFailsWith(String message, CompletableFuture<BatchProcessed> batch) {
+
+    Throwable cause = assertThrows(ExecutionException.class, () -> get(batch)).getCause();
+
+    assertTrue(cause instanceof IllegalStateException);
+    assertEquals(message, cause.getMessage());
+  }
+
+  private List<Transaction> createTransactions(int numberOfTransactions) {
+
+    List<Transaction> transactions = new ArrayList<>();
+
+    for (int i = 0; i < numberOfTransactions; i++) {
+
+      transactions.add(new Transaction(nextTransactionId++, CUSTOMERS[i % CUSTOMERS.length], 1.0,
+          TransactionType.RECEIPT));
+    }
+
+    return transactions;
+  }
+}
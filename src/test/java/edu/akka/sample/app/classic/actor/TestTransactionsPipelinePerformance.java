@@ -0,0 +1,332 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import akka.Done;
+import akka.actor.ActorIdentity;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Identify;
+import akka.actor.Status;
+import akka.testkit.javadsl.TestKit;
+import edu.akka.sample.app.classic.actor.ResultSinkActor.ResultSinkSettings;
+import edu.akka.sample.app.classic.actor.TransactionsActor.BatchProcessed;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drain;
+import edu.akka.sample.app.classic.actor.TransactionsActor.Drained;
+import edu.akka.sample.app.classic.actor.TransactionsActor.HotCustomerSettings;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionResult;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import edu.akka.sample.app.classic.data.provider.SyntheticTransactionProvider;
+import edu.akka.sample.app.classic.data.provider.SyntheticTransactionProvider.Settings;
+import edu.akka.sample.app.classic.data.result.ColumnarResultReader;
+import edu.akka.sample.app.classic.data.statistics.StatisticsAccumulator;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Load and latency tests of the whole pipeline: Transactions Actor, Customer Actors and their
+ * workers, Statistics Actor and Result Sink Actor, fed with synthetic transactions.
+ * <p>
+ * These tests take a while, so they are tagged as "performance" and only run on demand:
+ * {@code ./gradlew test -Pperformance} or {@code mvn -P performance test}.
+ * <p>
+ * Floors and ceilings are loose on purpose: they catch regressions by an order of magnitude, not
+ * the noise of a busy build machine.
+ */
+@Tag("performance")
+public class TestTransactionsPipelinePerformance {
+
+  private static final int NUMBER_OF_TRANSACTIONS = 2_000_000;
+  private static final int NUMBER_OF_CUSTOMERS = 1000;
+  private static final int BATCH_SIZE = 10_000;
+  private static final int BATCHES_IN_FLIGHT = 4;
+
+  private static final double MIN_TRANSACTIONS_PER_SECOND = 20_000;
+  private static final double MAX_P99_BATCH_LATENCY_MILLIS = 5_000;
+  private static final long MAX_RETAINED_HEAP_BYTES = 64 * 1024 * 1024;
+
+  private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+  private static PrintStream systemOut;
+
+  @TempDir
+  Path directory;
+
+  private ActorSystem actorSystem;
+
+  @BeforeAll
+  public static void silenceConsole() {
+
+    // every transaction is printed several times, which would otherwise dominate the results
+    systemOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @AfterAll
+  public static void restoreConsole() {
+
+    System.setOut(systemOut);
+  }
+
+  @BeforeEach
+  public void createActorSystem() {
+
+    actorSystem = ActorSystem.create("TestTransactionsPipelinePerformance");
+  }
+
+  @AfterEach
+  public void shutdownActorSystem() {
+
+    TestKit.shutdownActorSystem(actorSystem);
+  }
+
+  /**
+   * GIVEN pipeline fed with a few million synthetic transactions, as fast as possible
+   * WHEN submitting them in batches, with several batches in flight
+   * THEN the throughput is above the floor
+   * AND the 99th percentile of the batch latency is below the ceiling
+   * AND the heap retained once everything is processed stays bounded
+   */
+  @Test
+  public void testThroughputAndBatchLatency() throws Exception {
+
+    long usedHeapBefore = getUsedHeapAfterGc();
+
+    ActorRef resultSinkActor = createResultSinkActor();
+    ActorRef transactionsActor = createTransactionsActor(resultSinkActor,
+        new HotCustomerSettings(1000, 5000, 4, Duration.ofSeconds(1)));
+    TransactionsClient transactionsClient =
+        new TransactionsClient(transactionsActor, actorSystem.dispatcher());
+
+    SyntheticTransactionProvider provider =
+        new SyntheticTransactionProvider(getSettings(NUMBER_OF_TRANSACTIONS, NUMBER_OF_CUSTOMERS));
+
+    long[] latencies = new long[NUMBER_OF_TRANSACTIONS / BATCH_SIZE];
+    Deque<CompletableFuture<BatchProcessed>> submittedBatches = new ArrayDeque<>();
+
+    long startTime = System.nanoTime();
+
+    List<Transaction> transactions = provider.readTransactions(BATCH_SIZE);
+
+    for (int batch = 0; !transactions.isEmpty(); batch++) {
+
+      int index = batch;
+      long submitTime = System.nanoTime();
+
+      submittedBatches.add(transactionsClient.submit(transactions)
+          .whenComplete((batchProcessed, e) ->
+              latencies[index] = System.nanoTime() - submitTime));
+
+      if (submittedBatches.size() >= BATCHES_IN_FLIGHT) {
+
+        submittedBatches.remove().get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+      }
+
+      transactions = provider.readTransactions(BATCH_SIZE);
+    }
+
+    while (!submittedBatches.isEmpty()) {
+
+      submittedBatches.remove().get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+    StatisticsAccumulator batchLatencies = new StatisticsAccumulator();
+
+    for (long latency : latencies) {
+
+      batchLatencies.record(latency / 1_000_000.0);
+    }
+
+    double transactionsPerSecond = NUMBER_OF_TRANSACTIONS / seconds;
+    double p99 = batchLatencies.getPercentile(99);
+
+    systemOut.printf("%d transactions in %.1f s: %.0f transactions per second, "
+            + "batch latency p50 %.0f ms, p99 %.0f ms%n", NUMBER_OF_TRANSACTIONS, seconds,
+        transactionsPerSecond, batchLatencies.getPercentile(50), p99);
+
+    assertTrue(transactionsPerSecond >= MIN_TRANSACTIONS_PER_SECOND,
+        "Throughput of " + transactionsPerSecond + " transactions per second is below the floor");
+    assertTrue(p99 <= MAX_P99_BATCH_LATENCY_MILLIS,
+        "99th percentile of batch latency of " + p99 + " ms is above the ceiling");
+
+    // whatever the sinks still buffer is written, so that only what is retained is measured
+    TestKit probe = new TestKit(actorSystem);
+    probe.send(resultSinkActor, new Flush());
+    probe.expectMsg(TIMEOUT, Done.getInstance());
+
+    long retainedHeap = getUsedHeapAfterGc() - usedHeapBefore;
+
+    systemOut.printf("Heap retained: %d KiB%n", retainedHeap / 1024);
+
+    assertTrue(retainedHeap <= MAX_RETAINED_HEAP_BYTES,
+        "Heap retained of " + retainedHeap + " bytes is above the bound");
+  }
+
+  /**
+   * GIVEN pipeline with a few hot customers, whose transactions are spread over workers
+   * AND two clients, one with futures and one with the ask pattern
+   * WHEN both submit all of their batches at once, so that all batches overlap
+   * THEN workers were created for hot customers
+   * AND every batch completes with its own number of transactions
+   * AND every transaction is acknowledged exactly once
+   * AND the result of every transaction is written exactly once
+   */
+  @Test
+  public void testNoLostOrDuplicatedAcksAcrossOverlappingBatches() throws Exception {
+
+    int numberOfTransactions = 200_000;
+    int batchSize = 1000;
+
+    ActorRef resultSinkActor = createResultSinkActor();
+    ActorRef transactionsActor = createTransactionsActor(resultSinkActor,
+        new HotCustomerSettings(100, 1000, 4, Duration.ofMillis(100)));
+    TransactionsClient transactionsClient =
+        new TransactionsClient(transactionsActor, actorSystem.dispatcher());
+    TestKit probe = new TestKit(actorSystem);
+
+    SyntheticTransactionProvider provider =
+        new SyntheticTransactionProvider(getSettings(numberOfTransactions, 10));
+
+    List<CompletableFuture<BatchProcessed>> submittedBatches = new ArrayList<>();
+    List<Integer> batchSizes = new ArrayList<>();
+    int numberOfAskedBatches = 0;
+
+    List<Transaction> transactions = provider.readTransactions(batchSize);
+
+    while (!transactions.isEmpty()) {
+
+      if (submittedBatches.size() == numberOfAskedBatches) {
+
+        submittedBatches.add(transactionsClient.submit(transactions));
+        batchSizes.add(transactions.size());
+      }
+      else {
+
+        probe.send(transactionsActor, transactions);
+        numberOfAskedBatches++;
+      }
+
+      transactions = provider.readTransactions(batchSize);
+    }
+
+    for (int i = 0; i < submittedBatches.size(); i++) {
+
+      assertEquals(batchSizes.get(i), submittedBatches.get(i)
+          .get(TIMEOUT.toSeconds(), TimeUnit.SECONDS).numberOfTransactions());
+    }
+
+    probe.receiveN(numberOfAskedBatches, TIMEOUT)
+        .forEach(reply -> assertEquals(new Status.Success("OK"), reply));
+
+    // otherwise, the transactions were not spread over workers, and this test covers much less
+    TestKit workers = new TestKit(actorSystem);
+    actorSystem.actorSelection(
+            transactionsActor.path().toStringWithoutAddress() + "/customer-*-worker-*")
+        .tell(new Identify(1), workers.getRef());
+    assertTrue(workers.expectMsgClass(TIMEOUT, ActorIdentity.class).getActorRef().isPresent(),
+        "No customer became hot");
+
+    probe.send(transactionsActor, new Drain(Duration.ofSeconds(1)));
+    probe.expectMsg(TIMEOUT, new Drained(numberOfTransactions, 0));
+
+    probe.send(resultSinkActor, new Flush());
+    probe.expectMsg(TIMEOUT, Done.getInstance());
+
+    // ids of synthetic transactions go from 1 to the number of transactions
+    int[] timesWritten = new int[numberOfTransactions + 1];
+
+    for (TransactionResult result : ColumnarResultReader.readDirectory(
+        directory.resolve("results"))) {
+
+      timesWritten[result.transaction().id()]++;
+    }
+
+    for (int id = 1; id <= numberOfTransactions; id++) {
+
+      assertEquals(1, timesWritten[id], "Result of transaction " + id);
+    }
+  }
+
+  private ActorRef createResultSinkActor() {
+
+    return actorSystem.actorOf(ResultSinkActor.getResultSinkActor(new ResultSinkSettings(
+        directory.resolve("results"), 65536, 64 * 1024 * 1024, Duration.ofSeconds(1))));
+  }
+
+  private ActorRef createTransactionsActor(ActorRef resultSinkActor,
+      HotCustomerSettings hotCustomerSettings) {
+
+    ActorRef statisticsActor = actorSystem.actorOf(StatisticsActor.getStatisticsActor(
+        Duration.ofSeconds(1), 5, directory.resolve("transaction-statistics.csv")));
+
+    return actorSystem.actorOf(TransactionsActor.getTransactionsActor(
+        statisticsActor, resultSinkActor, hotCustomerSettings));
+  }
+
+  private static Settings getSettings(int numberOfTransactions, int numberOfCustomers) {
+
+    return new Settings(numberOfTransactions, numberOfCustomers, 1.1,
+        Map.of(TransactionType.RECEIPT, 3.0, TransactionType.PAY, 6.0,
+            TransactionType.REIMBURSE, 1.0),
+        0, 25.0, 1.0, 42);
+  }
+
+  private static long getUsedHeapAfterGc() {
+
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    // one collection may leave garbage behind, e.g., objects waiting for finalization
+    for (int i = 0; i < 3; i++) {
+
+      memory.gc();
+    }
+
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
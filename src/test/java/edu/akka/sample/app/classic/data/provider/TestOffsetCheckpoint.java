@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link OffsetCheckpoint}.
+ */
+public class TestOffsetCheckpoint {
+
+  private static final Duration NO_INTERVAL = Duration.ZERO;
+  private static final Duration LONG_INTERVAL = Duration.ofHours(1);
+
+  @TempDir
+  Path directory;
+
+  /**
+   * GIVEN no checkpoint file
+   * WHEN loading the checkpoint
+   * THEN reading starts from the beginning
+   */
+  @Test
+  public void testLoadWithoutCheckpoint() throws IOException {
+
+    assertEquals(0, new OffsetCheckpoint(directory.resolve("offset"), NO_INTERVAL).load());
+  }
+
+  /**
+   * GIVEN checkpoint
+   * WHEN acknowledging some transactions
+   * THEN another checkpoint on the same file resumes after them
+   */
+  @Test
+  public void testResumeAfterAcknowledged() throws IOException {
+
+    Path file = directory.resolve("offset");
+    OffsetCheckpoint checkpoint = new OffsetCheckpoint(file, NO_INTERVAL);
+
+    checkpoint.acknowledge(5);
+    checkpoint.acknowledge(3);
+
+    assertEquals(8, new OffsetCheckpoint(file, NO_INTERVAL).load());
+    assertFalse(Files.exists(directory.resolve("offset.tmp")));
+  }
+
+  /**
+   * GIVEN checkpoint with a long interval between writes
+   * WHEN acknowledging some transactions
+   * THEN nothing is written until the checkpoint is saved explicitly
+   */
+  @Test
+  public void testWriteOnlyAfterInterval() throws IOException {
+
+    Path file = directory.resolve("offset");
+    OffsetCheckpoint checkpoint = new OffsetCheckpoint(file, LONG_INTERVAL);
+
+    checkpoint.acknowledge(5);
+
+    assertFalse(Files.exists(file));
+
+    checkpoint.save();
+
+    assertEquals(5, new OffsetCheckpoint(file, LONG_INTERVAL).load());
+  }
+
+  /**
+   * GIVEN checkpoint whose results are flushed before every write
+   * WHEN acknowledging some transactions
+   * THEN the results are flushed while the previous offset is still in the file
+   */
+  @Test
+  public void testFlushResultsBeforeWrite() throws IOException {
+
+    Path file = directory.resolve("offset");
+    List<Integer> offsetsWhileFlushing = new ArrayList<>();
+    OffsetCheckpoint checkpoint = new OffsetCheckpoint(file, NO_INTERVAL,
+        () -> offsetsWhileFlushing.add(new OffsetCheckpoint(file, NO_INTERVAL).load()));
+
+    checkpoint.acknowledge(5);
+    checkpoint.acknowledge(3);
+
+    assertEquals(List.of(0, 5), offsetsWhileFlushing);
+    assertEquals(8, new OffsetCheckpoint(file, NO_INTERVAL).load());
+  }
+
+  /**
+   * GIVEN checkpoint whose results cannot be flushed
+   * WHEN acknowledging some transactions
+   * THEN the offset is not written, and it is written once the results are flushed
+   */
+  @Test
+  public void testNoWriteWhenFlushFails() throws IOException {
+
+    Path file = directory.resolve("offset");
+    List<IOException> flushFailures = new ArrayList<>();
+    flushFailures.add(new IOException("disk full"));
+    OffsetCheckpoint checkpoint = new OffsetCheckpoint(file, NO_INTERVAL, () -> {
+
+      if (!flushFailures.isEmpty()) {
+
+        throw flushFailures.remove(0);
+      }
+    });
+
+    assertThrows(IOException.class, () -> checkpoint.acknowledge(5));
+    assertFalse(Files.exists(file));
+
+    checkpoint.save();
+
+    assertEquals(5, new OffsetCheckpoint(file, NO_INTERVAL).load());
+  }
+
+  /**
+   * GIVEN saved checkpoint
+   * WHEN clearing it
+   * THEN reading starts from the beginning again
+   */
+  @Test
+  public void testClear() throws IOException {
+
+    Path file = directory.resolve("offset");
+    OffsetCheckpoint checkpoint = new OffsetCheckpoint(file, NO_INTERVAL);
+
+    checkpoint.acknowledge(5);
+    checkpoint.clear();
+
+    assertEquals(0, new OffsetCheckpoint(file, NO_INTERVAL).load());
+  }
+
+  /**
+   * GIVEN checkpoint file with invalid content
+   * WHEN loading the checkpoint
+   * THEN an error is raised instead of reading from a wrong offset
+   */
+  @Test
+  public void testInvalidCheckpoint() throws IOException {
+
+    Path file = Files.writeString(directory.resolve("offset"), "not a number");
+
+    assertThrows(IOException.class, () -> new OffsetCheckpoint(file, NO_INTERVAL).load());
+  }
+}
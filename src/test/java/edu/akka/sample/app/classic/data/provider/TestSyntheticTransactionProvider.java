@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import edu.akka.sample.app.classic.data.provider.SyntheticTransactionProvider.Settings;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link SyntheticTransactionProvider}.
+ */
+public class TestSyntheticTransactionProvider {
+
+  private static final int NUMBER_OF_TRANSACTIONS = 10000;
+  private static final int NUMBER_OF_CUSTOMERS = 100;
+  private static final int CHUNK = 1000;
+
+  /**
+   * GIVEN two providers with the same settings
+   * WHEN reading all their data
+   * THEN exactly the same transactions are returned
+   * AND a provider with another seed returns other transactions
+   */
+  @Test
+  public void testSameSeedSameTransactions() {
+
+    List<Transaction> transactions = new SyntheticTransactionProvider(getSettings(1.0, 7))
+        .readTransactions(NUMBER_OF_TRANSACTIONS);
+
+    assertEquals(transactions, new SyntheticTransactionProvider(getSettings(1.0, 7))
+        .readTransactions(NUMBER_OF_TRANSACTIONS));
+    assertNotEquals(transactions, new SyntheticTransactionProvider(getSettings(1.0, 8))
+        .readTransactions(NUMBER_OF_TRANSACTIONS));
+  }
+
+  /**
+   * GIVEN provider of synthetic data
+   * WHEN reading the data repeatedly in chunks
+   * THEN exactly the configured number of transactions is read
+   */
+  @Test
+  public void testReadAllDataInChunks() {
+
+    SyntheticTransactionProvider provider = new SyntheticTransactionProvider(getSettings(1.0, 7));
+
+    int count = 0;
+    List<Transaction> transactions = provider.readTransactions(CHUNK + 1);
+
+    while (!transactions.isEmpty()) {
+
+      count += transactions.size();
+      transactions = provider.readTransactions(CHUNK + 1);
+    }
+
+    assertEquals(NUMBER_OF_TRANSACTIONS, count);
+  }
+
+  /**
+   * GIVEN providers with and without skew in the distribution of customers
+   * WHEN reading all their data
+   * THEN the most frequent customer of the skewed one has many more transactions
+   * AND transaction types without weight are never generated
+   */
+  @Test
+  public void testSkewAndMix() {
+
+    SyntheticTransactionProvider skewed = new SyntheticTransactionProvider(getSettings(1.5, 7));
+    SyntheticTransactionProvider uniform = new SyntheticTransactionProvider(getSettings(0, 7));
+
+    long skewedHottest = count(skewed.readTransactions(NUMBER_OF_TRANSACTIONS),
+        skewed.getCustomers().get(0));
+    long uniformHottest = count(uniform.readTransactions(NUMBER_OF_TRANSACTIONS),
+        uniform.getCustomers().get(0));
+
+    // with exponent 1.5 and 100 customers, the first one gets ~40% of the transactions
+    assertTrue(skewedHottest > NUMBER_OF_TRANSACTIONS / 4);
+    assertTrue(uniformHottest < NUMBER_OF_TRANSACTIONS / 25);
+
+    assertTrue(new SyntheticTransactionProvider(getSettings(1.0, 7))
+        .readTransactions(NUMBER_OF_TRANSACTIONS).stream()
+        .noneMatch(transaction -> transaction.transactionType() == TransactionType.REIMBURSE));
+  }
+
+  /**
+   * GIVEN two providers with the same settings
+   * WHEN one reads some data and the other skips the same amount
+   * THEN both read exactly the same transactions afterwards
+   */
+  @Test
+  public void testReadAfterSkip() {
+
+    SyntheticTransactionProvider reading = new SyntheticTransactionProvider(getSettings(1.0, 7));
+    SyntheticTransactionProvider skipping = new SyntheticTransactionProvider(getSettings(1.0, 7));
+
+    reading.readTransactions(CHUNK);
+    skipping.skipTransactions(CHUNK);
+
+    assertEquals(reading.readTransactions(CHUNK), skipping.readTransactions(CHUNK));
+  }
+
+  /**
+   * GIVEN settings with a negative or not finite weight, skew or median
+   * WHEN creating them
+   * THEN they are rejected, instead of picking undefined customers or types later on
+   */
+  @Test
+  public void testInvalidSettings() {
+
+    assertThrows(IllegalArgumentException.class, () -> getSettings(
+        Map.of(TransactionType.RECEIPT, 1.0, TransactionType.PAY, -1.0), 1.0, 25.0));
+    assertThrows(IllegalArgumentException.class, () -> getSettings(
+        Map.of(TransactionType.RECEIPT, 1.0, TransactionType.PAY, Double.NaN), 1.0, 25.0));
+    assertThrows(IllegalArgumentException.class, () -> getSettings(
+        Map.of(TransactionType.RECEIPT, Double.POSITIVE_INFINITY), 1.0, 25.0));
+    assertThrows(IllegalArgumentException.class, () -> getSettings(
+        Map.of(TransactionType.RECEIPT, 1.0), Double.NaN, 25.0));
+    assertThrows(IllegalArgumentException.class, () -> getSettings(
+        Map.of(TransactionType.RECEIPT, 1.0), 1.0, Double.NaN));
+  }
+
+  private static long count(List<Transaction> transactions, Customer customer) {
+
+    return transactions.stream()
+        .filter(transaction -> transaction.customer().equals(customer))
+        .count();
+  }
+
+  private static Settings getSettings(Map<TransactionType, Double> transactionTypeMix,
+      double customerSkew, double amountMedian) {
+
+    return new Settings(NUMBER_OF_TRANSACTIONS, NUMBER_OF_CUSTOMERS, customerSkew,
+        transactionTypeMix, 0, amountMedian, 1.0, 7);
+  }
+
+  private static Settings getSettings(double customerSkew, long seed) {
+
+    return new Settings(NUMBER_OF_TRANSACTIONS, NUMBER_OF_CUSTOMERS, customerSkew,
+        Map.of(TransactionType.RECEIPT, 1.0, TransactionType.PAY, 2.0), 0, 25.0, 1.0, seed);
+  }
+}
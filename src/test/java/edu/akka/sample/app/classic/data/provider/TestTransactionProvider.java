@@ -121,4 +121,23 @@ public class TestTransactionProvider {
 
     assertTrue(moreTransactions.isEmpty());
   }
+
+  /**
+   * GIVEN provider of transaction data
+   * WHEN skipping some of the available data
+   * AND reading the rest
+   * THEN reading resumes right after the skipped data
+   */
+  @Test
+  public void testReadAfterSkip() {
+
+    TransactionProvider provider = new TransactionProvider();
+
+    provider.skipTransactions(SMALL_CHUNK);
+
+    List<Transaction> transactionsRead = provider.readTransactions(BIG_CHUNK);
+
+    assertEquals(provider.sizeOfAvailableData() - SMALL_CHUNK, transactionsRead.size());
+    assertEquals(SMALL_CHUNK + 1, transactionsRead.get(0).id());
+  }
 }
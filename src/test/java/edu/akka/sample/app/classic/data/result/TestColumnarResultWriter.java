@@ -0,0 +1,235 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.akka.sample.app.classic.data.definition.Customer;
+import edu.akka.sample.app.classic.data.definition.Transaction;
+import edu.akka.sample.app.classic.data.definition.TransactionResult;
+import edu.akka.sample.app.classic.data.definition.TransactionType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link ColumnarResultWriter} and {@link ColumnarResultReader}.
+ */
+public class TestColumnarResultWriter {
+
+  private static final int ROWS_PER_BLOCK = 100;
+  private static final long MAX_FILE_SIZE = 10 * 1024;
+
+  @TempDir
+  Path directory;
+
+  /**
+   * GIVEN writer
+   * WHEN writing results of several customers, including a partial block
+   * THEN exactly the same results are read back, in the same order
+   */
+  @Test
+  public void testWriteAndReadBack() throws IOException {
+
+    List<TransactionResult> results = getResults(ROWS_PER_BLOCK * 2 + 7);
+
+    try (ColumnarResultWriter writer = new ColumnarResultWriter(directory, ROWS_PER_BLOCK,
+        Long.MAX_VALUE)) {
+
+      for (TransactionResult result : results) {
+
+        writer.append(result);
+      }
+    }
+
+    assertEquals(results, ColumnarResultReader.readDirectory(directory));
+  }
+
+  /**
+   * GIVEN writer with a small maximum file size
+   * WHEN writing many results
+   * THEN results are spread over several files, none bigger than the maximum size
+   * AND all of them are read back
+   */
+  @Test
+  public void testRotationBySize() throws IOException {
+
+    List<TransactionResult> results = getResults(ROWS_PER_BLOCK * 10);
+
+    try (ColumnarResultWriter writer = new ColumnarResultWriter(directory, ROWS_PER_BLOCK,
+        MAX_FILE_SIZE)) {
+
+      for (TransactionResult result : results) {
+
+        writer.append(result);
+      }
+    }
+
+    List<Path> files = ColumnarResultWriter.listFiles(directory);
+
+    assertTrue(files.size() > 1);
+
+    for (Path file : files) {
+
+      assertTrue(Files.size(file) <= MAX_FILE_SIZE);
+    }
+
+    assertEquals(results, ColumnarResultReader.readDirectory(directory));
+  }
+
+  /**
+   * GIVEN directory with files of a previous writer
+   * WHEN writing more results with a new writer
+   * THEN the previous files are kept and the new results come after them
+   */
+  @Test
+  public void testNoOverwrite() throws IOException {
+
+    List<TransactionResult> results = getResults(ROWS_PER_BLOCK);
+
+    try (ColumnarResultWriter writer = new ColumnarResultWriter(directory, ROWS_PER_BLOCK,
+        Long.MAX_VALUE)) {
+
+      writer.append(results.get(0));
+    }
+
+    try (ColumnarResultWriter writer = new ColumnarResultWriter(directory, ROWS_PER_BLOCK,
+        Long.MAX_VALUE)) {
+
+      writer.append(results.get(1));
+    }
+
+    assertEquals(results.subList(0, 2), ColumnarResultReader.readDirectory(directory));
+  }
+
+  /**
+   * GIVEN directory with files that are not written by a writer, and a file whose sequence needs
+   * more digits than the ones before it
+   * WHEN writing more results with new writers
+   * THEN the other files are ignored
+   * AND the new files come after the last one by number, not by name
+   */
+  @Test
+  public void testFileSequence() throws IOException {
+
+    List<TransactionResult> results = getResults(ROWS_PER_BLOCK);
+    Files.createFile(directory.resolve("results-old.txc"));
+    Files.createFile(directory.resolve("results-.txc"));
+    Files.createFile(directory.resolve("results-99999.txc"));
+
+    for (int i = 0; i < 2; i++) {
+
+      try (ColumnarResultWriter writer = new ColumnarResultWriter(directory, ROWS_PER_BLOCK,
+          Long.MAX_VALUE)) {
+
+        writer.append(results.get(i));
+      }
+    }
+
+    assertEquals(List.of("results-99999.txc", "results-100000.txc", "results-100001.txc"),
+        ColumnarResultWriter.listFiles(directory).stream()
+            .map(file -> file.getFileName().toString())
+            .toList());
+    assertEquals(results.subList(0, 2), ColumnarResultReader.readDirectory(directory));
+  }
+
+  /**
+   * GIVEN customer whose identification takes more bytes than a short can count
+   * WHEN writing a result of the customer
+   * THEN the same identification is read back
+   */
+  @Test
+  public void testLongCustomerId() throws IOException {
+
+    Transaction transaction = new Transaction(1, new Customer("c".repeat(Short.MAX_VALUE + 10)),
+        1.5, TransactionType.RECEIPT);
+    TransactionResult result = new TransactionResult(transaction, 1.5);
+
+    try (ColumnarResultWriter writer = new ColumnarResultWriter(directory, ROWS_PER_BLOCK,
+        Long.MAX_VALUE)) {
+
+      writer.append(result);
+    }
+
+    assertEquals(List.of(result), ColumnarResultReader.readDirectory(directory));
+  }
+
+  /**
+   * GIVEN writer whose next file cannot be created
+   * WHEN flushing the buffered results
+   * THEN the flush fails and the block is dropped
+   * AND the results appended afterwards are written and read back as usual
+   */
+  @Test
+  public void testFailedFlushDropsBlock() throws IOException {
+
+    List<TransactionResult> results = getResults(ROWS_PER_BLOCK * 2);
+
+    try (ColumnarResultWriter writer = new ColumnarResultWriter(directory, ROWS_PER_BLOCK,
+        Long.MAX_VALUE)) {
+
+      // the writer never overwrites a file, so it cannot create this one
+      Path blockingFile = Files.createFile(directory.resolve("results-00001.txc"));
+
+      writer.append(results.get(0));
+      assertThrows(IOException.class, writer::flush);
+
+      Files.delete(blockingFile);
+
+      for (TransactionResult result : results.subList(1, results.size())) {
+
+        writer.append(result);
+      }
+    }
+
+    assertEquals(results.subList(1, results.size()),
+        ColumnarResultReader.readDirectory(directory));
+  }
+
+  private static List<TransactionResult> getResults(int numberOfResults) {
+
+    Customer[] customers = {Customer.CUSTOMER_ID_1, Customer.CUSTOMER_ID_2, Customer.CUSTOMER_ID_3};
+    TransactionType[] transactionTypes = TransactionType.values();
+
+    List<TransactionResult> results = new ArrayList<>();
+
+    for (int i = 0; i < numberOfResults; i++) {
+
+      Transaction transaction = new Transaction(i, customers[i % customers.length], i * 1.5,
+          transactionTypes[i % transactionTypes.length]);
+
+      // results processed by workers have no balance
+      results.add(new TransactionResult(transaction, i % 7 == 0 ? Double.NaN : i * 10.0));
+    }
+
+    return results;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link StatisticsAccumulator}.
+ */
+public class TestStatisticsAccumulator {
+
+  // the histogram splits every power of two in 16 buckets
+  private static final double PRECISION = 1.0 / 16;
+
+  /**
+   * GIVEN accumulator
+   * WHEN recording some amounts
+   * THEN count, sum, minimum and maximum are exact
+   */
+  @Test
+  public void testExactAggregates() {
+
+    StatisticsAccumulator accumulator = new StatisticsAccumulator();
+
+    accumulator.record(21.90);
+    accumulator.record(2.00);
+    accumulator.record(7.50);
+
+    assertEquals(3, accumulator.getCount());
+    assertEquals(31.40, accumulator.getSum(), 0.0001);
+    assertEquals(2.00, accumulator.getMin());
+    assertEquals(21.90, accumulator.getMax());
+  }
+
+  /**
+   * GIVEN accumulator
+   * WHEN recording the amounts from 1 to 1000
+   * THEN percentiles are estimated within the precision of the histogram
+   */
+  @Test
+  public void testPercentiles() {
+
+    StatisticsAccumulator accumulator = new StatisticsAccumulator();
+
+    for (int amount = 1; amount <= 1000; amount++) {
+
+      accumulator.record(amount);
+    }
+
+    assertEquals(500, accumulator.getPercentile(50), 500 * PRECISION);
+    assertEquals(900, accumulator.getPercentile(90), 900 * PRECISION);
+    assertEquals(990, accumulator.getPercentile(99), 990 * PRECISION);
+    assertEquals(1000, accumulator.getPercentile(100));
+  }
+
+  /**
+   * GIVEN two accumulators with recorded amounts
+   * WHEN merging one into the other
+   * AND resetting the merged one
+   * THEN the merge contains everything from both
+   * AND the reset accumulator is empty
+   */
+  @Test
+  public void testMergeAndReset() {
+
+    StatisticsAccumulator first = new StatisticsAccumulator();
+    StatisticsAccumulator second = new StatisticsAccumulator();
+
+    first.record(10);
+    second.record(1);
+    second.record(100);
+
+    first.merge(second);
+
+    assertEquals(3, first.getCount());
+    assertEquals(111, first.getSum());
+    assertEquals(1, first.getMin());
+    assertEquals(100, first.getMax());
+
+    first.reset();
+
+    assertTrue(first.isEmpty());
+    assertTrue(Double.isNaN(first.getMin()));
+    assertTrue(Double.isNaN(first.getPercentile(50)));
+  }
+}
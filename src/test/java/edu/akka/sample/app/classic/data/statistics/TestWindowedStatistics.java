@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Cristiano Silva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package edu.akka.sample.app.classic.data.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link WindowedStatistics}.
+ */
+public class TestWindowedStatistics {
+
+  private static final int NUMBER_OF_PANES = 3;
+
+  /**
+   * GIVEN windowed statistics
+   * WHEN recording one amount per pane
+   * THEN the tumbling window contains only the amount of the current pane
+   * AND the sliding window contains the amounts of all panes
+   */
+  @Test
+  public void testTumblingAndSlidingWindows() {
+
+    WindowedStatistics statistics = new WindowedStatistics(NUMBER_OF_PANES);
+    StatisticsAccumulator sliding = new StatisticsAccumulator();
+
+    statistics.record(1);
+    statistics.roll();
+    statistics.record(2);
+    statistics.roll();
+    statistics.record(3);
+
+    assertEquals(1, statistics.tumbling().getCount());
+    assertEquals(3, statistics.tumbling().getSum());
+
+    assertEquals(3, statistics.sliding(sliding).getCount());
+    assertEquals(6, sliding.getSum());
+  }
+
+  /**
+   * GIVEN windowed statistics with one recorded amount
+   * WHEN rolling the window as many times as it has panes
+   * THEN the amount leaves the sliding window
+   */
+  @Test
+  public void testAmountLeavesSlidingWindow() {
+
+    WindowedStatistics statistics = new WindowedStatistics(NUMBER_OF_PANES);
+
+    statistics.record(1);
+
+    for (int i = 1; i < NUMBER_OF_PANES; i++) {
+
+      statistics.roll();
+      statistics.record(2);
+    }
+
+    assertEquals(NUMBER_OF_PANES, statistics.sliding(new StatisticsAccumulator()).getCount());
+
+    statistics.roll();
+
+    assertEquals(NUMBER_OF_PANES - 1,
+        statistics.sliding(new StatisticsAccumulator()).getCount());
+
+    for (int i = 0; i < NUMBER_OF_PANES; i++) {
+
+      statistics.roll();
+    }
+
+    assertTrue(statistics.isEmpty());
+  }
+}